@@ -34,11 +34,13 @@ dependencies {
     implementation("org.axonframework.extensions.reactor:axon-reactor-spring-boot-starter:4.6.0")
     implementation("org.springdoc:springdoc-openapi-webflux-ui:1.6.12")
     implementation("dev.samstevens.totp:totp-spring-boot-starter:1.7.1")
+    implementation("org.redisson:redisson-spring-boot-starter:3.17.7")
 
     implementation(project(":spring-core"))
     implementation(project(":spring-metrics"))
     implementation(project(":spring-web"))
     implementation(project(":spring-axon-reactor"))
+    implementation(project(":rate-limiter"))
 
     implementation(project(":security-core"))
 
@@ -5,12 +5,12 @@ import com.example.auth.common.OpenApi;
 import com.example.auth.device.Device;
 import com.example.auth.device.DeviceQuery;
 import com.example.auth.device.DeviceRegistrationConfig;
+import com.example.auth.device.VerifiedDeviceCache;
 import com.example.auth.signature.RequestSignature;
+import com.example.security.core.PublicKeyCache;
 import com.example.spring.core.exceptions.CoreExceptions;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.security.SignatureException;
-import java.security.spec.InvalidKeySpecException;
 import java.util.List;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
@@ -45,6 +45,8 @@ public class RequestVerifier implements WebFilter {
 
   private final ReactorQueryGateway reactorQueryGateway;
   private final DeviceRegistrationConfig deviceRegistrationConfig;
+  private final VerifiedDeviceCache verifiedDeviceCache;
+  private final PublicKeyCache devicePublicKeyCache;
   private final ClientConfiguration clientConfiguration;
 
   @Override
@@ -130,6 +132,10 @@ public class RequestVerifier implements WebFilter {
     }
     var id = idAndPw[0];
     var pw = idAndPw[1];
+    var verifiedDevice = verifiedDeviceCache.getIfVerified(id, pw);
+    if (verifiedDevice.isPresent()) {
+      return Mono.just(verifiedDevice.get());
+    }
     return reactorQueryGateway
         .query(DeviceQuery.GetDeviceByIdQuery.builder().id(id).build(), Device.class)
         .doOnSuccess(
@@ -137,6 +143,7 @@ public class RequestVerifier implements WebFilter {
               if (!deviceRegistrationConfig.verifyHash(pw, device.getHash())) {
                 throw AuthException.INVALID_DEVICE_CODE.getEx();
               }
+              verifiedDeviceCache.put(id, pw, device);
             });
   }
 
@@ -164,13 +171,12 @@ public class RequestVerifier implements WebFilter {
     if (isSignatureVerificationRequired(client, encryptedSignature)) {
       var signature = createSignature(clientCode, authorization, body, queryString);
       try {
-        if (!signature.verify(encryptedSignature, currentDevice.getPublicKey())) {
+        var publicKey =
+            devicePublicKeyCache.get(currentDevice.getId(), currentDevice.getPublicKey());
+        if (!signature.verify(encryptedSignature, publicKey)) {
           throw AuthException.INVALID_SIGNATURE.getEx();
         }
-      } catch (InvalidKeyException
-          | NoSuchAlgorithmException
-          | SignatureException
-          | InvalidKeySpecException e) {
+      } catch (InvalidKeyException | SignatureException e) {
         throw CoreExceptions.UNAUTHORIZED.getEx();
       }
     }
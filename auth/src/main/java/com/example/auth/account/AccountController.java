@@ -3,6 +3,7 @@ package com.example.auth.account;
 import com.example.auth.AuthException;
 import com.example.auth.common.ClientConfiguration;
 import com.example.auth.device.Device;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.core.exceptions.ApplicationException;
 import java.util.UUID;
 import lombok.*;
@@ -11,7 +12,6 @@ import org.axonframework.extensions.reactor.commandhandling.gateway.ReactorComma
 import org.axonframework.extensions.reactor.queryhandling.gateway.ReactorQueryGateway;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @RestController
@@ -20,6 +20,7 @@ public class AccountController implements AccountAPI {
 
   private final ReactorCommandGateway commandGateway;
   private final ReactorQueryGateway queryGateway;
+  private final ProjectionAwaiter projectionAwaiter;
   private final AccountConfig accountConfig;
   private final ClientConfiguration clientConfiguration;
 
@@ -51,18 +52,10 @@ public class AccountController implements AccountAPI {
                         .hashLength(AccountConfig.HASH_LENGTH)
                         .build();
 
-                return commandGateway
-                    .send(command)
-                    .publishOn(Schedulers.boundedElastic())
-                    .mapNotNull(
-                        o ->
-                            queryGateway
-                                .subscriptionQuery(
-                                    AccountQuery.GetAccountByIdQuery.builder()
-                                        .id(command.getId())
-                                        .build(),
-                                    Account.class)
-                                .blockFirst());
+                return projectionAwaiter.awaitAfter(
+                    commandGateway.send(command),
+                    AccountQuery.GetAccountByIdQuery.builder().id(command.getId()).build(),
+                    Account.class);
               } else {
                 throw applicationException;
               }
@@ -0,0 +1,48 @@
+package com.example.auth.common;
+
+import com.example.auth.device.VerifiedDeviceCache;
+import com.example.auth.device.trust.AlertNotifier;
+import com.example.auth.device.trust.UserDeviceProjector;
+import com.example.spring.axon.reactor.InitialTokens;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@org.springframework.context.annotation.Configuration
+public class EventProcessingConfiguration {
+
+  /**
+   * Node-local caches have to see every event on every replica, so their processors keep their
+   * token in memory and start tracking from the head of the stream instead of sharing segments.
+   */
+  @Autowired
+  public void configureNodeLocalProcessors(EventProcessingConfigurer processingConfigurer) {
+    processingConfigurer
+        .registerTokenStore(VerifiedDeviceCache.PROCESSING_GROUP, c -> new InMemoryTokenStore())
+        .registerTrackingEventProcessor(
+            VerifiedDeviceCache.PROCESSING_GROUP,
+            Configuration::eventStore,
+            c ->
+                TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                    .andInitialTrackingToken(StreamableMessageSource::createHeadToken));
+  }
+
+  /**
+   * Alerts used to be sent by the {@code user_device} projection, so the group starts where that
+   * processor is instead of mailing every historic alert again on the first deploy.
+   */
+  @Autowired
+  public void configureAlertProcessor(EventProcessingConfigurer processingConfigurer) {
+    processingConfigurer.registerPooledStreamingEventProcessor(
+        AlertNotifier.PROCESSING_GROUP,
+        Configuration::eventStore,
+        (c, builder) ->
+            builder
+                .initialSegmentCount(2)
+                .batchSize(20)
+                .initialToken(InitialTokens.copyOf(c, UserDeviceProjector.PROCESSING_GROUP)));
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.auth.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+/**
+ * Renders mail templates whose variables come from client configuration only, such as the email
+ * factor challenge. The output is the same for every request with the same template and variables,
+ * so it is rendered once and reused until the configuration is refreshed.
+ */
+@Slf4j
+@Component
+public class TemplateRenderer {
+
+  private static final long MAXIMUM_SIZE = 1_000;
+
+  private final SpringTemplateEngine htmlTemplateEngine;
+  private final Cache<RenderKey, String> rendered;
+
+  public TemplateRenderer(SpringTemplateEngine htmlTemplateEngine) {
+    this.htmlTemplateEngine = htmlTemplateEngine;
+    this.rendered = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+  }
+
+  public String render(String template, Map<String, Object> variables) {
+    return rendered.get(
+        new RenderKey(template, Map.copyOf(variables)),
+        key -> {
+          var ctx = new Context();
+          ctx.setVariables(key.variables());
+          return htmlTemplateEngine.process(key.template(), ctx);
+        });
+  }
+
+  @EventListener({EnvironmentChangeEvent.class, RefreshScopeRefreshedEvent.class})
+  public void onConfigurationRefresh() {
+    log.info("configuration refreshed, dropping {} rendered templates", rendered.estimatedSize());
+    rendered.invalidateAll();
+    htmlTemplateEngine.clearTemplateCache();
+  }
+
+  private record RenderKey(String template, Map<String, Object> variables) {}
+}
@@ -8,7 +8,8 @@ import com.example.auth.device.trust.UserDeviceQuery;
 import com.example.auth.token.Claims;
 import com.example.auth.token.refresh.RefreshTokenCommand;
 import com.example.auth.token.refresh.RefreshTokenService;
-import com.example.security.core.RSAUtil;
+import com.example.security.core.KeyPairPool;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.core.exceptions.ApplicationException;
 import com.example.spring.core.exceptions.CoreExceptions;
 import java.util.*;
@@ -21,7 +22,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 @Slf4j
 @RestController
@@ -29,9 +30,12 @@ import reactor.core.scheduler.Schedulers;
 public class DeviceController implements DeviceAPI {
   private final ReactorCommandGateway commandGateway;
   private final ReactorQueryGateway queryGateway;
+  private final ProjectionAwaiter projectionAwaiter;
   private final DeviceRegistrationConfig deviceRegistrationConfig;
   private final ClientConfiguration clientConfiguration;
   private final RefreshTokenService refreshTokenService;
+  private final KeyPairPool deviceKeyPairPool;
+  private final Scheduler deviceRegistrationScheduler;
 
   @Override
   public Mono<DeviceRegistrationResponse> registerDevice(DeviceRequest deviceRequest) {
@@ -39,37 +43,44 @@ public class DeviceController implements DeviceAPI {
       throw AuthException.INVALID_CLIENT.getEx();
     }
     var password = UUID.randomUUID().toString();
-    var keyPairGenerator = RSAUtil.generateKeyPair();
-    var privateKey = Base64.getEncoder().encodeToString(keyPairGenerator.getPrivate().getEncoded());
-    var publicKey = Base64.getEncoder().encodeToString(keyPairGenerator.getPublic().getEncoded());
+    return Mono.fromCallable(
+            () -> {
+              var keyPair = deviceKeyPairPool.take();
+              var hash = deviceRegistrationConfig.getHash(password);
+              return new DeviceCredentials(
+                  Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                  Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                  hash);
+            })
+        .subscribeOn(deviceRegistrationScheduler)
+        .flatMap(credentials -> register(deviceRequest, password, credentials));
+  }
+
+  private Mono<DeviceRegistrationResponse> register(
+      DeviceRequest deviceRequest, String password, DeviceCredentials credentials) {
     var command =
         DeviceCommand.RegisterDeviceCommand.builder()
-            .publicKey(publicKey)
+            .publicKey(credentials.publicKey())
             .id(UUID.randomUUID().toString())
             .hashLength(DeviceRegistrationConfig.HASH_LENGTH)
             .saltLength(DeviceRegistrationConfig.SALT_LENGTH)
-            .hash(deviceRegistrationConfig.getHash(password))
+            .hash(credentials.hash())
             .os(deviceRequest.getOs())
             .client(deviceRequest.getClient())
             .name(deviceRequest.getName())
             .model(deviceRequest.getModel())
             .manufacturer(deviceRequest.getManufacturer())
             .build();
-    return commandGateway
-        .send(command)
-        .publishOn(Schedulers.boundedElastic())
-        .mapNotNull(
-            o ->
-                queryGateway
-                    .subscriptionQuery(
-                        DeviceQuery.GetDeviceByIdQuery.builder().id(command.getId()).build(),
-                        Device.class)
-                    .blockFirst())
+    return projectionAwaiter
+        .awaitAfter(
+            commandGateway.send(command),
+            DeviceQuery.GetDeviceByIdQuery.builder().id(command.getId()).build(),
+            Device.class)
         .map(
             device ->
                 DeviceRegistrationResponse.builder()
                     .id(device.getId() + "." + password)
-                    .key(privateKey)
+                    .key(credentials.privateKey())
                     .build());
   }
 
@@ -174,4 +185,6 @@ public class DeviceController implements DeviceAPI {
               return deviceResponses;
             });
   }
+
+  private record DeviceCredentials(String privateKey, String publicKey, String hash) {}
 }
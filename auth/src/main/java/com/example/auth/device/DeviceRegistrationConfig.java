@@ -1,10 +1,23 @@
 package com.example.auth.device;
 
+import com.example.security.core.KeyPairPool;
+import com.example.security.core.PublicKeyCache;
 import de.mkammerer.argon2.Argon2;
 import de.mkammerer.argon2.Argon2Factory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.Data;
+import lombok.Setter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+@Setter
 @Configuration
+@ConfigurationProperties(prefix = "auth.device-registration")
 public class DeviceRegistrationConfig {
   public static final int SALT_LENGTH = 16;
   public static final int HASH_LENGTH = 32;
@@ -13,6 +26,10 @@ public class DeviceRegistrationConfig {
   public static final int PARALLELISM = 1;
   public static final Argon2 ARGON2 = Argon2Factory.create(SALT_LENGTH, HASH_LENGTH);
 
+  private VerifiedCache verifiedCache = new VerifiedCache();
+  private KeyPairPoolSettings keyPairPool = new KeyPairPoolSettings();
+  private HashingSettings hashing = new HashingSettings();
+
   public String getHash(String password) {
     var passwordCharArray = password.toCharArray();
     try {
@@ -26,4 +43,47 @@ public class DeviceRegistrationConfig {
     var passwordCharArray = password.toCharArray();
     return ARGON2.verify(hash, passwordCharArray);
   }
+
+  @Bean
+  public VerifiedDeviceCache verifiedDeviceCache(ObjectProvider<MeterRegistry> meterRegistry) {
+    return new VerifiedDeviceCache(
+        verifiedCache.getMaximumSize(), verifiedCache.getExpiry(), meterRegistry.getIfAvailable());
+  }
+
+  @Bean
+  public PublicKeyCache devicePublicKeyCache() {
+    return new PublicKeyCache(verifiedCache.getMaximumSize().intValue());
+  }
+
+  @Bean(destroyMethod = "close")
+  public KeyPairPool deviceKeyPairPool() {
+    return new KeyPairPool(
+        keyPairPool.getLowWatermark(), keyPairPool.getHighWatermark(), keyPairPool.getWorkers());
+  }
+
+  /** Argon2 hashing is CPU and memory bound, so it gets its own capped pool off the event loop. */
+  @Bean(destroyMethod = "dispose")
+  public Scheduler deviceRegistrationScheduler() {
+    return Schedulers.newBoundedElastic(
+        hashing.getThreadCap(), hashing.getQueuedTaskCap(), "device-registration");
+  }
+
+  @Data
+  public static class VerifiedCache {
+    private Long maximumSize = 10_000L;
+    private Duration expiry = Duration.ofMinutes(10);
+  }
+
+  @Data
+  public static class KeyPairPoolSettings {
+    private Integer lowWatermark = 8;
+    private Integer highWatermark = 32;
+    private Integer workers = 1;
+  }
+
+  @Data
+  public static class HashingSettings {
+    private Integer threadCap = Runtime.getRuntime().availableProcessors();
+    private Integer queuedTaskCap = 1_000;
+  }
 }
@@ -0,0 +1,88 @@
+package com.example.auth.device;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+
+/**
+ * Node-local cache of devices whose client code has already been verified against the Argon2
+ * hash. Only an HMAC of the presented secret is kept, keyed with a random per-process key, so the
+ * raw secret never leaves the request.
+ */
+@Slf4j
+@ProcessingGroup(VerifiedDeviceCache.PROCESSING_GROUP)
+public class VerifiedDeviceCache {
+
+  public static final String PROCESSING_GROUP = "device-cache";
+  public static final String CACHE_NAME = "verified-devices";
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final Cache<String, VerifiedDevice> cache;
+  private final SecretKeySpec digestKey;
+
+  public VerifiedDeviceCache(long maximumSize, Duration expiry, MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expiry)
+            .recordStats()
+            .build();
+    var key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    this.digestKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    if (meterRegistry != null) {
+      CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+  }
+
+  public Optional<Device> getIfVerified(String id, String secret) {
+    var verifiedDevice = cache.getIfPresent(id);
+    if (verifiedDevice == null || !MessageDigest.isEqual(verifiedDevice.digest, digest(secret))) {
+      return Optional.empty();
+    }
+    return Optional.of(verifiedDevice.device);
+  }
+
+  public void put(String id, String secret, Device device) {
+    cache.put(id, new VerifiedDevice(device, digest(secret)));
+  }
+
+  public void invalidate(String id) {
+    cache.invalidate(id);
+  }
+
+  @EventHandler
+  public void on(DeviceEvent.DeviceRegisteredEvent event) {
+    invalidate(event.getId());
+  }
+
+  @EventHandler
+  public void on(DeviceEvent.DeviceNameUpdatedEvent event) {
+    invalidate(event.getId());
+  }
+
+  private byte[] digest(String secret) {
+    try {
+      var mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(digestKey);
+      return mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record VerifiedDevice(Device device, byte[] digest) {}
+}
@@ -2,53 +2,87 @@ package com.example.auth.device.trust;
 
 import com.example.api.messaging.MessagingCommand;
 import com.example.api.messaging.Priority;
+import com.example.auth.account.Account;
 import com.example.auth.account.AccountRepository;
 import com.example.auth.common.ClientConfiguration;
 import com.example.auth.device.Device;
 import com.example.auth.device.DeviceRepository;
 import com.example.spring.core.exceptions.CoreExceptions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.Builder;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
-import org.springframework.core.annotation.Order;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.springframework.stereotype.Component;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
+/**
+ * Sends device alerts from its own processing group, so rendering and dispatch never hold up the
+ * {@code user_device} projection. Commands are sent without waiting; the sends of one event batch
+ * are awaited together when the batch commits, so a failed send still rolls the batch back and is
+ * retried instead of being dropped.
+ */
 @Slf4j
-@Order(2)
 @Component
-@RequiredArgsConstructor
-@ProcessingGroup("user_device")
+@ProcessingGroup(AlertNotifier.PROCESSING_GROUP)
 public class AlertNotifier {
 
+  public static final String PROCESSING_GROUP = "device_alerts";
+  private static final String PENDING_ALERTS = AlertNotifier.class.getName() + ".pending";
+  private static final Duration LOOKUP_EXPIRY = Duration.ofMinutes(1);
+  private static final long LOOKUP_MAXIMUM_SIZE = 10_000;
+
   private final CommandGateway commandGateway;
   private final SpringTemplateEngine htmlTemplateEngine;
   private final ClientConfiguration clientConfig;
   private final DeviceRepository deviceRepository;
   private final AccountRepository accountRepository;
   private final UserDeviceRepository userDeviceRepository;
+  private final Cache<String, Device> devices;
+  private final Cache<String, Account> accounts;
+
+  public AlertNotifier(
+      CommandGateway commandGateway,
+      SpringTemplateEngine htmlTemplateEngine,
+      ClientConfiguration clientConfig,
+      DeviceRepository deviceRepository,
+      AccountRepository accountRepository,
+      UserDeviceRepository userDeviceRepository) {
+    this.commandGateway = commandGateway;
+    this.htmlTemplateEngine = htmlTemplateEngine;
+    this.clientConfig = clientConfig;
+    this.deviceRepository = deviceRepository;
+    this.accountRepository = accountRepository;
+    this.userDeviceRepository = userDeviceRepository;
+    this.devices =
+        Caffeine.newBuilder()
+            .maximumSize(LOOKUP_MAXIMUM_SIZE)
+            .expireAfterWrite(LOOKUP_EXPIRY)
+            .build();
+    this.accounts =
+        Caffeine.newBuilder()
+            .maximumSize(LOOKUP_MAXIMUM_SIZE)
+            .expireAfterWrite(LOOKUP_EXPIRY)
+            .build();
+  }
 
   @EventHandler
   public void on(UserDeviceEvent.UserDeviceRegisteredEvent event) {
-    var deviceId = event.getDeviceId();
-    var device =
-        deviceRepository
-            .findById(deviceId)
-            .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
-    var account =
-        accountRepository
-            .findById(event.getAccountId())
-            .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
+    var device = getDevice(event.getDeviceId());
+    var account = getAccount(event.getAccountId());
     sendNewDeviceDetectedAlert(
         DeviceInfo.builder()
             .device(device)
@@ -60,18 +94,19 @@ public class AlertNotifier {
 
   @EventHandler
   public void on(UserDeviceEvent.UserDeviceTrustedEvent event) {
-    var userDevice =
-        userDeviceRepository
-            .findById(event.getId())
-            .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
-    var device =
-        deviceRepository
-            .findById(userDevice.getDeviceId())
-            .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
-    var account =
-        accountRepository
-            .findById(userDevice.getAccountId())
-            .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
+    var deviceId = event.getDeviceId();
+    var accountId = event.getAccountId();
+    if (deviceId == null || accountId == null) {
+      // events stored before the ids were carried on the event, still read on a replay
+      var userDevice =
+          userDeviceRepository
+              .findById(event.getId())
+              .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
+      deviceId = userDevice.getDeviceId();
+      accountId = userDevice.getAccountId();
+    }
+    var device = getDevice(deviceId);
+    var account = getAccount(accountId);
     sendTrustedDeviceAddedAlert(
         DeviceInfo.builder()
             .device(device)
@@ -81,6 +116,50 @@ public class AlertNotifier {
         device.getClient());
   }
 
+  private Device getDevice(String deviceId) {
+    var device = devices.getIfPresent(deviceId);
+    if (device == null) {
+      device =
+          deviceRepository
+              .findById(deviceId)
+              .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
+      devices.put(deviceId, device);
+    }
+    return device;
+  }
+
+  private Account getAccount(String accountId) {
+    var account = accounts.getIfPresent(accountId);
+    if (account == null) {
+      account =
+          accountRepository
+              .findById(accountId)
+              .orElseThrow(CoreExceptions.INTERNAL_SERVER_ERROR::getEx);
+      accounts.put(accountId, account);
+    }
+    return account;
+  }
+
+  private void dispatch(MessagingCommand.SendEmailCommand command) {
+    CompletableFuture<Object> result = commandGateway.send(command);
+    if (!CurrentUnitOfWork.isStarted()) {
+      result.join();
+      return;
+    }
+    var root = CurrentUnitOfWork.get().root();
+    List<CompletableFuture<Object>> pending =
+        root.getOrComputeResource(
+            PENDING_ALERTS,
+            key -> {
+              var futures = new ArrayList<CompletableFuture<Object>>();
+              root.onPrepareCommit(
+                  unitOfWork ->
+                      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join());
+              return futures;
+            });
+    pending.add(result);
+  }
+
   public void sendTrustedDeviceAddedAlert(DeviceInfo deviceInfo, String client) {
     var currentClient = clientConfig.getCurrentClient(client);
     if (!deviceInfo.getUserEmail().isEmpty())
@@ -115,7 +194,7 @@ public class AlertNotifier {
             .to(List.of(deviceInfo.getUserEmail()))
             .priority(Priority.HIGH)
             .build();
-    commandGateway.sendAndWait(command);
+    dispatch(command);
     log.info("sending NewDeviceDetected email {} for {}", command.getId(), deviceInfo);
   }
 
@@ -138,7 +217,7 @@ public class AlertNotifier {
             .to(List.of(deviceInfo.getUserEmail()))
             .priority(Priority.HIGH)
             .build();
-    commandGateway.sendAndWait(command);
+    dispatch(command);
     log.info("sending TrustedDeviceAdded email {} for {}", command.getId(), deviceInfo);
   }
 
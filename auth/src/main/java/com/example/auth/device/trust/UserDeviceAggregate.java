@@ -52,7 +52,12 @@ public class UserDeviceAggregate {
 
   @CommandHandler
   public String on(UserDeviceCommand.TrustUserDeviceCommand command) {
-    var event = UserDeviceEvent.UserDeviceTrustedEvent.builder().id(command.getId()).build();
+    var event =
+        UserDeviceEvent.UserDeviceTrustedEvent.builder()
+            .id(command.getId())
+            .deviceId(deviceId)
+            .accountId(accountId)
+            .build();
     AggregateLifecycle.apply(event);
     return command.getId();
   }
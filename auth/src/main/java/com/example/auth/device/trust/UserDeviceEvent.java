@@ -36,6 +36,8 @@ public class UserDeviceEvent {
   @Revision("1.0")
   public static class UserDeviceTrustedEvent {
     private String id;
+    private String deviceId;
+    private String accountId;
   }
 
   @Data
@@ -14,9 +14,11 @@ import org.springframework.stereotype.Component;
 @Order(1)
 @Component
 @AllArgsConstructor
-@ProcessingGroup("user_device")
+@ProcessingGroup(UserDeviceProjector.PROCESSING_GROUP)
 public class UserDeviceProjector {
 
+  public static final String PROCESSING_GROUP = "user_device";
+
   private final UserDeviceRepository userDeviceRepository;
 
   @EventHandler
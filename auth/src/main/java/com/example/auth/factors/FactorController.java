@@ -10,6 +10,7 @@ import com.example.auth.AuthException;
 import com.example.auth.account.Account;
 import com.example.auth.account.AccountQuery;
 import com.example.auth.common.ClientConfiguration;
+import com.example.auth.common.TemplateRenderer;
 import com.example.auth.device.Device;
 import com.example.auth.factors.totp.Totp;
 import com.example.auth.factors.totp.TotpCommand;
@@ -28,6 +29,8 @@ import dev.samstevens.totp.qr.QrGenerator;
 import dev.samstevens.totp.recovery.RecoveryCodeGenerator;
 import dev.samstevens.totp.secret.SecretGenerator;
 import java.util.Arrays;
+import java.util.Map;
+import javax.crypto.spec.IvParameterSpec;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.extensions.reactor.commandhandling.gateway.ReactorCommandGateway;
@@ -36,8 +39,6 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -53,7 +54,7 @@ public class FactorController implements FactorAPI {
   private final ReactorQueryGateway queryGateway;
   private final ReactorCommandGateway commandGateway;
   private final ClientConfiguration clientConfiguration;
-  private final SpringTemplateEngine htmlTemplateEngine;
+  private final TemplateRenderer templateRenderer;
   private final ObjectMapper objectMapper;
 
   @Override
@@ -62,9 +63,9 @@ public class FactorController implements FactorAPI {
     var clientConfig = clientConfiguration.getCurrentClient(device.getClient());
     var factor = clientConfig.getFactors();
     var emailFactor = factor.getEmail();
-    final var ctx = new Context();
-    ctx.setVariable("expiry", factor.getExpiry().toMinutes());
-    final var htmlContent = this.htmlTemplateEngine.process(emailFactor.getTemplate(), ctx);
+    final var htmlContent =
+        templateRenderer.render(
+            emailFactor.getTemplate(), Map.of("expiry", factor.getExpiry().toMinutes()));
     return queryGateway
         .query(
             AccountQuery.GetAccountByIdQuery.builder().id(accountSubject.getId()).build(),
@@ -140,9 +141,9 @@ public class FactorController implements FactorAPI {
     var factorConfig = clientConfig.getFactors();
     var emailFactor = factorConfig.getEmail();
     var accountSubject = claims.getAccountSubject();
-    final var ctx = new Context();
-    ctx.setVariable("expiry", factorConfig.getExpiry().toMinutes());
-    final var htmlContent = this.htmlTemplateEngine.process(emailFactor.getTemplate(), ctx);
+    final var htmlContent =
+        templateRenderer.render(
+            emailFactor.getTemplate(), Map.of("expiry", factorConfig.getExpiry().toMinutes()));
     return queryGateway
         .query(
             FactorQuery.GetFactorByAccountIdAndFactorTypeQuery.builder()
@@ -238,10 +239,8 @@ public class FactorController implements FactorAPI {
         .flatMap(
             account -> {
               var secret = secretGenerator.generate();
-              var iv = AESUtil.generateIv();
               var totpSecret =
-                  AESUtil.encrypt(secret, configTotp.getPassword(), configTotp.getSalt(), iv);
-              var totpIv = iv.getIV();
+                  AESUtil.encryptGcm(secret, configTotp.getPassword(), configTotp.getSalt());
               var data =
                   qrDataFactory
                       .newBuilder()
@@ -260,13 +259,11 @@ public class FactorController implements FactorAPI {
                               .build(),
                           TotpCommand.CreateTotpCommand.builder()
                               .recoveryCode(
-                                  AESUtil.encrypt(
+                                  AESUtil.encryptGcm(
                                       String.join(",", codes),
                                       configTotp.getPassword(),
-                                      configTotp.getSalt(),
-                                      iv))
+                                      configTotp.getSalt()))
                               .accountId(account.getId())
-                              .iv(totpIv)
                               .secret(totpSecret)
                               .build()))
                   .collectList()
@@ -302,7 +299,7 @@ public class FactorController implements FactorAPI {
               var clientConfig = clientConfiguration.getCurrentClient(device.getClient());
               var factorConfig = clientConfig.getFactors();
               var configTotp = factorConfig.getTotp();
-              var iv = AESUtil.generateIv(totp.getIv());
+              var iv = legacyIv(totp);
               var recoveryCode =
                   AESUtil.decrypt(
                       totp.getRecoveryCode(), configTotp.getPassword(), configTotp.getSalt(), iv);
@@ -352,7 +349,7 @@ public class FactorController implements FactorAPI {
               var clientConfig = clientConfiguration.getCurrentClient(device.getClient());
               var factorConfig = clientConfig.getFactors();
               var configTotp = factorConfig.getTotp();
-              var iv = AESUtil.generateIv(totp.getIv());
+              var iv = legacyIv(totp);
               var secret =
                   AESUtil.decrypt(
                       totp.getSecret(), configTotp.getPassword(), configTotp.getSalt(), iv);
@@ -373,6 +370,11 @@ public class FactorController implements FactorAPI {
     return getDataUriForImage(qrGenerator.generate(data), qrGenerator.getImageMimeType());
   }
 
+  /** Only rows written before the switch to gcm have an iv, gcm values carry their own nonce. */
+  private static IvParameterSpec legacyIv(Totp totp) {
+    return totp.getIv() == null ? null : AESUtil.generateIv(totp.getIv());
+  }
+
   @Builder
   @Getter
   @AllArgsConstructor
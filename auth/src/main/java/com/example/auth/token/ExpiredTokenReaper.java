@@ -0,0 +1,101 @@
+package com.example.auth.token;
+
+import com.example.auth.token.access.keys.PublicSigningKeyRepository;
+import com.example.auth.token.refresh.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes refresh tokens past their expiry or refresh chain deadline and signing keys past their
+ * expiry. Each run removes at most {@code maxBatchesPerRun} batches of {@code batchSize} rows per
+ * table, selecting ids through the expiry indexes and deleting by primary key, so a large backlog is
+ * worked off gradually instead of in one long transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    prefix = "auth.purge",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ExpiredTokenReaper {
+
+  private static final String ROWS_METRIC = "auth.purge.rows";
+  private static final String BATCH_METRIC = "auth.purge.batch";
+
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final PublicSigningKeyRepository publicSigningKeyRepository;
+  private final PurgeSettings settings;
+  private final Table refreshTokens;
+  private final Table signingKeys;
+
+  public ExpiredTokenReaper(
+      RefreshTokenRepository refreshTokenRepository,
+      PublicSigningKeyRepository publicSigningKeyRepository,
+      PurgeSettings settings,
+      MeterRegistry meterRegistry) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.publicSigningKeyRepository = publicSigningKeyRepository;
+    this.settings = settings;
+    this.refreshTokens = new Table("refresh_tokens", meterRegistry);
+    this.signingKeys = new Table("signing_keys", meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${auth.purge.interval:PT1M}")
+  public void purge() {
+    var now = Instant.now();
+    purge(
+        refreshTokens,
+        pageable -> refreshTokenRepository.findExpiredIds(now, pageable),
+        refreshTokenRepository::deleteAllByIdIn);
+    purge(
+        signingKeys,
+        pageable -> publicSigningKeyRepository.findExpiredIds(now, pageable),
+        publicSigningKeyRepository::deleteAllByIdIn);
+  }
+
+  private void purge(
+      Table table,
+      Function<Pageable, List<String>> findExpiredIds,
+      ToIntFunction<List<String>> deleteAllByIdIn) {
+    var batch = PageRequest.of(0, settings.getBatchSize());
+    var purged = 0;
+    for (int i = 0; i < settings.getMaxBatchesPerRun(); i++) {
+      var sample = Timer.start();
+      var ids = findExpiredIds.apply(batch);
+      var deleted = ids.isEmpty() ? 0 : deleteAllByIdIn.applyAsInt(ids);
+      sample.stop(table.batchLatency);
+      table.rowsPurged.increment(deleted);
+      purged += deleted;
+      if (ids.size() < settings.getBatchSize()) {
+        break;
+      }
+    }
+    if (purged > 0) {
+      log.info("purged {} expired rows from {}", purged, table.name);
+    }
+  }
+
+  private static class Table {
+    private final String name;
+    private final Counter rowsPurged;
+    private final Timer batchLatency;
+
+    private Table(String name, MeterRegistry meterRegistry) {
+      this.name = name;
+      this.rowsPurged = meterRegistry.counter(ROWS_METRIC, "table", name);
+      this.batchLatency = meterRegistry.timer(BATCH_METRIC, "table", name);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.auth.token;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "auth.purge")
+public class PurgeSettings {
+
+  private Boolean enabled = true;
+  private Duration interval = Duration.ofMinutes(1);
+  private Integer batchSize = 500;
+  private Integer maxBatchesPerRun = 20;
+}
@@ -9,6 +9,7 @@ import com.example.auth.common.ClientConfiguration;
 import com.example.auth.device.Device;
 import com.example.auth.device.trust.UserDeviceCommand;
 import com.example.auth.token.access.JwtTokenFactory;
+import com.example.auth.token.access.keys.PublicSigningKey;
 import com.example.auth.token.access.keys.SigningKeyService;
 import com.example.auth.token.refresh.RefreshTokenCommand;
 import com.example.auth.token.refresh.RefreshTokenQuery;
@@ -16,6 +17,7 @@ import com.example.auth.token.refresh.RefreshTokenService;
 import com.example.spring.core.exceptions.CoreExceptions;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.*;
@@ -37,6 +39,7 @@ public class TokenController implements TokenAPI {
   private final ClientConfiguration clientConfiguration;
   private final SigningKeyService signingKeyService;
   private final RefreshTokenService refreshTokenService;
+  private volatile RenderedJwks renderedJwks;
 
   @Override
   public Mono<TokenResponse> accountToken(AccountTokenRequest request, Device device) {
@@ -129,6 +132,7 @@ public class TokenController implements TokenAPI {
                           RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
                               .identifier(id)
                               .deviceId(device.getId())
+                              .oldToken(request.getRefreshToken())
                               .token(newRefreshToken)
                               .expireAt(
                                   Instant.now()
@@ -149,26 +153,37 @@ public class TokenController implements TokenAPI {
 
   @Override
   public Mono<JwksResponse> jwks() {
-    return Mono.just(
-        JwksResponse.builder()
-            .keys(
-                signingKeyService
-                    .getKeys()
-                    .map(
-                        signingKey -> {
-                          var rsaKey = signingKey.toPublicJWK();
-                          return Jwk.builder()
-                              .e(rsaKey.getPublicExponent().toString())
-                              .n(rsaKey.getModulus().toString())
-                              .kty(rsaKey.getKeyType().getValue())
-                              .use(rsaKey.getKeyUse().getValue())
-                              .kid(rsaKey.getKeyID())
-                              .build();
-                        })
-                    .collect(Collectors.toList()))
-            .build());
+    var keys = signingKeyService.getPublishedKeys();
+    var rendered = renderedJwks;
+    if (rendered == null || rendered.keys() != keys) {
+      rendered = new RenderedJwks(keys, renderJwks(keys));
+      renderedJwks = rendered;
+    }
+    return Mono.just(rendered.response());
   }
 
+  private JwksResponse renderJwks(List<PublicSigningKey> keys) {
+    return JwksResponse.builder()
+        .keys(
+            keys.stream()
+                .map(
+                    signingKey -> {
+                      var rsaKey = signingKey.toPublicJWK();
+                      return Jwk.builder()
+                          .e(rsaKey.getPublicExponent().toString())
+                          .n(rsaKey.getModulus().toString())
+                          .kty(rsaKey.getKeyType().getValue())
+                          .use(rsaKey.getKeyUse().getValue())
+                          .kid(rsaKey.getKeyID())
+                          .build();
+                    })
+                .collect(Collectors.toList()))
+        .build();
+  }
+
+  /** JWKS document rendered from one published key list, replaced when the list changes. */
+  private record RenderedJwks(List<PublicSigningKey> keys, JwksResponse response) {}
+
   private Mono<String> getIdentifier(Claims.Subject subject) {
     if (subject instanceof Claims.AccountSubject s) {
       return reactorQueryGateway
@@ -15,4 +15,6 @@ public class JWKSSettings {
   private String issuer;
   private Duration keyRotationPeriod;
   private Duration coolDownPeriod;
+  private Duration rotationCheckInterval = Duration.ofSeconds(30);
+  private Duration publishAhead = Duration.ofMinutes(1);
 }
@@ -5,14 +5,18 @@ import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import com.example.auth.AuthException;
 import com.example.auth.common.ClientConfiguration;
 import com.example.auth.token.Claims;
-import com.example.auth.token.access.keys.PublicSigningKey;
 import com.example.auth.token.access.keys.SigningKeyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,9 +25,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class JwtTokenFactory {
 
+  private static final long MAXIMUM_VERIFIERS = 100;
+
   private final JWKSSettings jwksSettings;
   private final SigningKeyService signingKeyService;
   private final ClientConfiguration clientConfig;
+  private final Cache<String, KeyVerifier> verifiers;
 
   @Autowired
   public JwtTokenFactory(
@@ -33,26 +40,36 @@ public class JwtTokenFactory {
     this.jwksSettings = jwksSettings;
     this.signingKeyService = signingKeyService;
     this.clientConfig = clientConfig;
+    this.verifiers =
+        Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_VERIFIERS)
+            .expireAfter(new KeyVerifierExpiry())
+            .build();
   }
 
   public AccessJwtToken createAccessJwtToken(Claims claims, String client, String identifier) {
     var configuration = clientConfig.getCurrentClient(client);
     var signingKey = signingKeyService.getCurrentSigningKey();
-    var tokenBuilder =
-        JWT.create()
-            .withKeyId(signingKey.getId())
-            .withIssuer(jwksSettings.getIssuer())
-            .withIssuedAt(Date.from(Instant.now()))
-            .withExpiresAt(
-                Date.from(Instant.now().plus(configuration.getJwt().getAccessTokenExpiry())))
-            .withAudience(claims.getAud())
-            .withSubject(claims.getSubject().get())
-            .withClaim("amr", List.of(claims.getAmr().name()));
-
-    var customClaims = claims.getCustomClaims();
-    customClaims.forEach(tokenBuilder::withClaim);
-    tokenBuilder.withClaim("flags", Claims.getFlags(configuration, identifier));
-    var token = tokenBuilder.sign(signingKey.getSignAlgorithm());
+    var now = Instant.now();
+    var payload = new LinkedHashMap<String, Object>();
+    payload.put("iss", jwksSettings.getIssuer());
+    payload.put("iat", now.getEpochSecond());
+    payload.put("exp", now.plus(configuration.getJwt().getAccessTokenExpiry()).getEpochSecond());
+    if (claims.getAud() != null) {
+      payload.put("aud", claims.getAud());
+    }
+    payload.put("sub", claims.getSubject().get());
+    payload.put("amr", List.of(claims.getAmr().name()));
+    claims
+        .getCustomClaims()
+        .forEach(
+            (name, value) -> {
+              if (value != null) {
+                payload.put(name, value);
+              }
+            });
+    payload.put("flags", Claims.getFlags(configuration, identifier));
+    var token = signingKey.sign(payload);
     return new AccessJwtToken(token, claims);
   }
 
@@ -81,27 +98,59 @@ public class JwtTokenFactory {
   }
 
   public DecodedJWT decode(String token) {
-    var signingKey = getKeyFromToken(token);
-    return this.parseClaims(token, signingKey, jwksSettings.getIssuer());
-  }
-
-  private PublicSigningKey getKeyFromToken(String token) {
+    DecodedJWT decodedJwt;
     try {
-      var decodedJwt = JWT.decode(token);
-      return signingKeyService.getByKeyId(decodedJwt.getKeyId());
+      decodedJwt = JWT.decode(token);
     } catch (JWTDecodeException exception) {
       throw AuthException.INVALID_TOKEN.getEx();
     }
-  }
-
-  private DecodedJWT parseClaims(String token, PublicSigningKey publicSigningKey, String issuer) {
     try {
-      var verifier = JWT.require(publicSigningKey.getDecodeAlgorithm()).withIssuer(issuer).build();
-      return verifier.verify(token);
+      return getVerifier(decodedJwt.getKeyId()).verify(decodedJwt);
     } catch (TokenExpiredException exception) {
       throw AuthException.EXPIRED_TOKEN.getEx();
     } catch (JWTVerificationException | IllegalArgumentException exception) {
       throw AuthException.INVALID_TOKEN.getEx();
     }
   }
+
+  private JWTVerifier getVerifier(String keyId) {
+    if (keyId == null) {
+      throw AuthException.INVALID_TOKEN.getEx();
+    }
+    return verifiers.get(keyId, this::createVerifier).verifier();
+  }
+
+  private KeyVerifier createVerifier(String keyId) {
+    var signingKey = signingKeyService.getByKeyId(keyId);
+    var verifier =
+        JWT.require(signingKey.getDecodeAlgorithm()).withIssuer(jwksSettings.getIssuer()).build();
+    return new KeyVerifier(verifier, signingKey.getExpireAt());
+  }
+
+  /** A verifier is only worth keeping for as long as the key it was built from is published. */
+  private record KeyVerifier(JWTVerifier verifier, Instant expireAt) {}
+
+  private static class KeyVerifierExpiry implements Expiry<String, KeyVerifier> {
+
+    @Override
+    public long expireAfterCreate(String keyId, KeyVerifier keyVerifier, long currentTime) {
+      if (keyVerifier.expireAt() == null) {
+        return 0;
+      }
+      var remaining = Duration.between(Instant.now(), keyVerifier.expireAt());
+      return remaining.isNegative() ? 0 : remaining.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String keyId, KeyVerifier keyVerifier, long currentTime, long currentDuration) {
+      return expireAfterCreate(keyId, keyVerifier, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String keyId, KeyVerifier keyVerifier, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
 }
@@ -2,18 +2,59 @@ package com.example.auth.token.access.keys;
 
 import com.auth0.jwt.algorithms.Algorithm;
 import com.example.security.core.RSAUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
 import java.security.interfaces.RSAPrivateKey;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import lombok.Builder;
 import lombok.Getter;
 
+/**
+ * The key tokens are currently minted with. The PKCS8 key is parsed and the JWT header for its
+ * {@code kid} is encoded once when the key becomes active, so issuing a token only costs the payload
+ * serialization and the RSA sign itself.
+ */
 @Getter
-@Builder
 public class PrivateSigningKey {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
   private final String key;
   private final String id;
+  private final Algorithm signAlgorithm;
+  private final String encodedHeader;
+
+  @Builder
+  public PrivateSigningKey(String key, String id) {
+    this.key = key;
+    this.id = id;
+    this.signAlgorithm = Algorithm.RSA256(null, privateKey(key));
+    var header = new LinkedHashMap<String, Object>();
+    header.put("kid", id);
+    header.put("typ", "JWT");
+    header.put("alg", signAlgorithm.getName());
+    this.encodedHeader = encode(header);
+  }
+
+  public String sign(Map<String, Object> payload) {
+    var encodedPayload = encode(payload);
+    var signature =
+        signAlgorithm.sign(
+            encodedHeader.getBytes(StandardCharsets.UTF_8),
+            encodedPayload.getBytes(StandardCharsets.UTF_8));
+    return encodedHeader + '.' + encodedPayload + '.' + ENCODER.encodeToString(signature);
+  }
 
-  public Algorithm getSignAlgorithm() {
-    return Algorithm.RSA256(null, privateKey(key));
+  private static String encode(Map<String, Object> json) {
+    try {
+      return ENCODER.encodeToString(OBJECT_MAPPER.writeValueAsBytes(json));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
   private RSAPrivateKey privateKey(String privateKey) {
@@ -1,33 +1,52 @@
 package com.example.auth.token.access.keys;
 
 import com.example.auth.token.access.JWKSSettings;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PrivateSigningKeyRepository {
 
-  private final Cache<String, PrivateSigningKey> cache;
+  private final Duration keyRotationPeriod;
+  private final AtomicReference<ActiveKey> activeKey = new AtomicReference<>();
 
   @Autowired
   public PrivateSigningKeyRepository(JWKSSettings settings) {
-    this.cache = Caffeine.newBuilder().expireAfterWrite(settings.getKeyRotationPeriod()).build();
+    this.keyRotationPeriod = settings.getKeyRotationPeriod();
   }
 
   public PrivateSigningKey save(String keyId, String key) {
-    var privateSigningKey = PrivateSigningKey.builder().id(keyId).key(key).build();
-    cache.put(keyId, privateSigningKey);
+    return activate(
+        PrivateSigningKey.builder().id(keyId).key(key).build(),
+        Instant.now().plus(keyRotationPeriod));
+  }
+
+  public PrivateSigningKey activate(PrivateSigningKey privateSigningKey, Instant rotateAt) {
+    activeKey.set(new ActiveKey(privateSigningKey, rotateAt));
     return privateSigningKey;
   }
 
-  public Optional<PrivateSigningKey> findAny() {
-    return cache.asMap().values().stream().findAny();
+  /** The active key while it is due for rotation less than {@code overdue} ago. */
+  public Optional<PrivateSigningKey> findActive(Duration overdue) {
+    var current = activeKey.get();
+    if (current == null || !Instant.now().isBefore(current.rotateAt().plus(overdue))) {
+      return Optional.empty();
+    }
+    return Optional.of(current.signingKey());
+  }
+
+  public Optional<Instant> findRotateAt() {
+    var current = activeKey.get();
+    return current == null ? Optional.empty() : Optional.of(current.rotateAt());
   }
 
   public void clearKeys() {
-    cache.invalidateAll();
+    activeKey.set(null);
   }
+
+  private record ActiveKey(PrivateSigningKey signingKey, Instant rotateAt) {}
 }
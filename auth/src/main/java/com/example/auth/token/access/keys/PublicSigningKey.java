@@ -9,7 +9,9 @@ import java.security.interfaces.RSAPublicKey;
 import java.time.Instant;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
+import javax.persistence.Table;
 import javax.persistence.Transient;
 import lombok.*;
 
@@ -19,6 +21,9 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "signing_keys")
+@Table(
+    name = "signing_keys",
+    indexes = @Index(name = "idx_signing_keys_expire_at", columnList = "expireAt"))
 public class PublicSigningKey {
   @Id private String id;
   @Lob private String publicKey;
@@ -2,9 +2,22 @@ package com.example.auth.token.access.keys;
 
 import java.time.Instant;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PublicSigningKeyRepository extends JpaRepository<PublicSigningKey, String> {
 
   List<PublicSigningKey> findAllByExpireAtAfter(Instant instant);
+
+  @Query("select k.id from signing_keys k where k.expireAt < :now")
+  List<String> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+  @Transactional
+  @Modifying
+  @Query("delete from signing_keys k where k.id in :ids")
+  int deleteAllByIdIn(@Param("ids") List<String> ids);
 }
@@ -0,0 +1,23 @@
+package com.example.auth.token.access.keys;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps key generation off the request path: the first key is created at startup, the next one is
+ * generated and published ahead of each rotation, and the swap happens here rather than in the
+ * first login after the current key expires.
+ */
+@Component
+@RequiredArgsConstructor
+public class SigningKeyRotationScheduler {
+
+  private final SigningKeyService signingKeyService;
+
+  @Scheduled(fixedDelayString = "${auth.jwks.rotation-check-interval:PT30S}")
+  public void rotate() {
+    signingKeyService.rotateSigningKey();
+    signingKeyService.prepareNextSigningKey();
+  }
+}
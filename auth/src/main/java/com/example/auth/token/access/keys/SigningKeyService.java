@@ -5,19 +5,28 @@ import com.example.auth.token.access.JWKSSettings;
 import com.example.security.core.RSAUtil;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 public class SigningKeyService {
 
+  private static final String PUBLISHED_KEYS = "published";
+
   private final PublicSigningKeyRepository publicSigningKeyRepository;
   private final PrivateSigningKeyRepository privateSigningKeyRepository;
   private final JWKSSettings settings;
   private final Cache<String, PublicSigningKey> cache;
+  private final Cache<String, List<PublicSigningKey>> publishedKeys;
+  private final AtomicReference<NextSigningKey> nextSigningKey = new AtomicReference<>();
+  private final Object rotationLock = new Object();
 
   public SigningKeyService(
       PublicSigningKeyRepository publicSigningKeyRepository,
@@ -27,10 +36,57 @@ public class SigningKeyService {
     this.privateSigningKeyRepository = privateSigningKeyRepository;
     this.settings = settings;
     this.cache = Caffeine.newBuilder().expireAfterWrite(settings.getCoolDownPeriod()).build();
+    this.publishedKeys =
+        Caffeine.newBuilder().expireAfterWrite(settings.getRotationCheckInterval()).build();
   }
 
+  /**
+   * The key to sign with. {@link SigningKeyRotationScheduler} swaps it when it is due, so a request
+   * keeps using the current key past its rotation time; it only rotates itself when there is no key
+   * yet or the scheduler has missed two checks.
+   */
   public PrivateSigningKey getCurrentSigningKey() {
-    return privateSigningKeyRepository.findAny().orElseGet(this::createNewSigningKey);
+    return privateSigningKeyRepository
+        .findActive(settings.getRotationCheckInterval().multipliedBy(2))
+        .orElseGet(this::rotateSigningKey);
+  }
+
+  /**
+   * Activates the pre-generated key once the current one is due, or generates one inline if it has
+   * not been prepared yet. Rotation is single-flight: threads that find no active key wait on the
+   * one rotating and reuse the key it activated. The next rotation is taken from the published
+   * expiry of the activated key, so a late swap does not push back the ones after it.
+   */
+  public PrivateSigningKey rotateSigningKey() {
+    synchronized (rotationLock) {
+      var active = privateSigningKeyRepository.findActive(Duration.ZERO);
+      if (active.isPresent()) {
+        return active.get();
+      }
+      var next = nextSigningKey.getAndSet(null);
+      if (next == null) {
+        next = createNewSigningKey(Instant.now());
+      }
+      log.info("activating signing key {}", next.signingKey().getId());
+      return privateSigningKeyRepository.activate(
+          next.signingKey(), next.expireAt().minus(settings.getCoolDownPeriod()));
+    }
+  }
+
+  /**
+   * Generates the key that takes over at the next rotation and publishes its public half once the
+   * rotation is within {@code publishAhead}, so relying parties can fetch it before the first token
+   * signed with it shows up.
+   */
+  public void prepareNextSigningKey() {
+    var rotateAt = privateSigningKeyRepository.findRotateAt();
+    if (rotateAt.isEmpty() || nextSigningKey.get() != null) {
+      return;
+    }
+    if (Instant.now().plus(settings.getPublishAhead()).isBefore(rotateAt.get())) {
+      return;
+    }
+    nextSigningKey.compareAndSet(null, createNewSigningKey(rotateAt.get()));
   }
 
   public PublicSigningKey getByKeyId(String id) {
@@ -43,11 +99,18 @@ public class SigningKeyService {
     return signingKey;
   }
 
-  public Stream<PublicSigningKey> getKeys() {
-    return publicSigningKeyRepository.findAllByExpireAtAfter(Instant.now()).stream();
+  /**
+   * Keys currently published in the JWKS document. The list is reloaded at most once per {@code
+   * rotationCheckInterval} and replaced as soon as this node publishes a key, so callers may cache
+   * whatever they derive from it for as long as they get the same instance back.
+   */
+  public List<PublicSigningKey> getPublishedKeys() {
+    return publishedKeys.get(
+        PUBLISHED_KEYS,
+        key -> List.copyOf(publicSigningKeyRepository.findAllByExpireAtAfter(Instant.now())));
   }
 
-  public PrivateSigningKey createNewSigningKey() {
+  private NextSigningKey createNewSigningKey(Instant activeFrom) {
     var keyPair = RSAUtil.generateKeyPair();
     var privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
     var publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
@@ -56,11 +119,16 @@ public class SigningKeyService {
             PublicSigningKey.builder()
                 .id(UUID.randomUUID().toString())
                 .expireAt(
-                    Instant.now()
+                    activeFrom
                         .plus(settings.getKeyRotationPeriod())
                         .plus(settings.getCoolDownPeriod()))
                 .publicKey(publicKey)
                 .build());
-    return privateSigningKeyRepository.save(publicSigningKey.getId(), privateKey);
+    publishedKeys.invalidateAll();
+    return new NextSigningKey(
+        PrivateSigningKey.builder().id(publicSigningKey.getId()).key(privateKey).build(),
+        publicSigningKey.getExpireAt());
   }
+
+  private record NextSigningKey(PrivateSigningKey signingKey, Instant expireAt) {}
 }
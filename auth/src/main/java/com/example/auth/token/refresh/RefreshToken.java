@@ -12,6 +12,14 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "refresh_tokens")
+@Table(
+    name = "refresh_tokens",
+    indexes = {
+      @Index(name = "idx_refresh_tokens_device_token", columnList = "deviceId,token"),
+      @Index(name = "idx_refresh_tokens_device_subject", columnList = "deviceId,subject"),
+      @Index(name = "idx_refresh_tokens_expire_at", columnList = "expireAt"),
+      @Index(name = "idx_refresh_tokens_chain_expire_at", columnList = "refreshChainExpireAt")
+    })
 public class RefreshToken {
 
   @Id private String id;
@@ -27,4 +35,5 @@ public class RefreshToken {
   private Instant expireAt;
   private Instant createdAt;
   private Duration refreshChainExpiry;
+  private Instant refreshChainExpireAt;
 }
@@ -56,17 +56,20 @@ public class RefreshTokenCommand {
   @NoArgsConstructor
   public static class RefreshRefreshTokenCommand {
     @TargetAggregateIdentifier private String id;
+    private String oldToken;
     private String token;
     private Instant expireAt;
 
     @Builder
     public RefreshRefreshTokenCommand(
-        String identifier, String deviceId, String token, Instant expireAt) {
+        String identifier, String deviceId, String oldToken, String token, Instant expireAt) {
       Objects.requireNonNull(identifier);
       Objects.requireNonNull(deviceId);
+      Objects.requireNonNull(oldToken);
       Objects.requireNonNull(token);
       Objects.requireNonNull(expireAt);
       this.id = RefreshTokenCommand.getId(identifier, deviceId);
+      this.oldToken = oldToken;
       this.token = token;
       this.expireAt = expireAt;
     }
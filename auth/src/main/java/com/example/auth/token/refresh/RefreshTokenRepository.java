@@ -1,9 +1,14 @@
 package com.example.auth.token.refresh;
 
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface RefreshTokenRepository extends CrudRepository<RefreshToken, String> {
   List<RefreshToken> findByDeviceId(String deviceId);
@@ -12,34 +17,48 @@ public interface RefreshTokenRepository extends CrudRepository<RefreshToken, Str
 
   void deleteAllBySubject(String accountId);
 
-  default Optional<RefreshToken> findByDeviceIdAndToken(String deviceId, String token) {
-    var refreshTokens = findByDeviceId(deviceId);
-    for (var refreshToken : refreshTokens) {
-      if (token.equals(refreshToken.getToken())) {
-        return Optional.of(refreshToken);
-      }
-    }
-    return Optional.empty();
-  }
-
-  default Optional<RefreshToken> findByDeviceIdAndSubject(String deviceId, String subject) {
-    var refreshTokens = findByDeviceId(deviceId);
-    for (var refreshToken : refreshTokens) {
-      if (subject.equals(refreshToken.getSubject())) {
-        return Optional.of(refreshToken);
-      }
-    }
-    return Optional.empty();
-  }
-
-  default void deleteAllByDeviceIdAndSubject(String id, String subject) {
-    var refreshTokens = findByDeviceId(id);
-    var listToBeDeleted = new ArrayList<RefreshToken>();
-    for (var refreshToken : refreshTokens) {
-      if (subject.equals(refreshToken.getSubject())) {
-        listToBeDeleted.add(refreshToken);
-      }
-    }
-    deleteAll(listToBeDeleted);
-  }
+  Optional<RefreshToken> findByDeviceIdAndToken(String deviceId, String token);
+
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from refresh_tokens r where r.deviceId = :deviceId and r.subject = :subject")
+  int deleteAllByDeviceIdAndSubject(
+      @Param("deviceId") String deviceId, @Param("subject") String subject);
+
+  /**
+   * Rotates {@code oldToken} in one statement, only while it is still the current token and both
+   * it and its refresh chain are valid. Returns the number of rows updated, so 0 means the token is
+   * unknown, expired or was already rotated.
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update refresh_tokens r set r.token = :token, r.expireAt = :expireAt"
+          + " where r.id = :id and r.token = :oldToken"
+          + " and r.expireAt > :now and r.refreshChainExpireAt > :now")
+  int rotate(
+      @Param("id") String id,
+      @Param("oldToken") String oldToken,
+      @Param("token") String token,
+      @Param("expireAt") Instant expireAt,
+      @Param("now") Instant now);
+
+  /** Stores the chain deadline of a token issued before it was kept, so it can be rotated. */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update refresh_tokens r set r.refreshChainExpireAt = :refreshChainExpireAt"
+          + " where r.id = :id and r.refreshChainExpireAt is null")
+  int backfillRefreshChainExpireAt(
+      @Param("id") String id, @Param("refreshChainExpireAt") Instant refreshChainExpireAt);
+
+  @Query(
+      "select r.id from refresh_tokens r"
+          + " where r.expireAt < :now or r.refreshChainExpireAt < :now")
+  List<String> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+  @Transactional
+  @Modifying
+  @Query("delete from refresh_tokens r where r.id in :ids")
+  int deleteAllByIdIn(@Param("ids") List<String> ids);
 }
@@ -22,27 +22,49 @@ public class RefreshTokenService {
             .id(command.getId())
             .subject(command.getSubject())
             .refreshChainExpiry(command.getRefreshChainExpiry())
+            .refreshChainExpireAt(command.getCreatedAt().plus(command.getRefreshChainExpiry()))
             .build();
     refreshTokenRepository.save(refreshToken);
     return command.getId();
   }
 
   public String on(RefreshTokenCommand.RefreshRefreshTokenCommand command) {
+    var now = Instant.now();
+    if (rotate(command, now)) {
+      return command.getId();
+    }
+
     var refreshToken =
         refreshTokenRepository
             .findById(command.getId())
             .orElseThrow(AuthException.INVALID_TOKEN::getEx);
-    if (refreshToken.getExpireAt().isBefore(Instant.now())
-        || Instant.now()
-            .minus(refreshToken.getRefreshChainExpiry())
-            .isAfter(refreshToken.getCreatedAt())) {
+    if (!refreshToken.getToken().equals(command.getOldToken())) {
+      // already rotated, by a concurrent refresh or because the old token is being reused
+      throw AuthException.INVALID_TOKEN.getEx();
+    }
+    if (refreshToken.getRefreshChainExpireAt() != null
+        || refreshToken.getExpireAt().isBefore(now)
+        || now.minus(refreshToken.getRefreshChainExpiry()).isAfter(refreshToken.getCreatedAt())) {
       throw AuthException.EXPIRED_TOKEN.getEx();
     }
 
-    refreshToken.setToken(command.getToken());
-    refreshToken.setExpireAt(command.getExpireAt());
-    refreshTokenRepository.save(refreshToken);
-    return command.getId();
+    // issued before the chain deadline was stored, backfill it and rotate with the same update
+    refreshTokenRepository.backfillRefreshChainExpireAt(
+        command.getId(), refreshToken.getCreatedAt().plus(refreshToken.getRefreshChainExpiry()));
+    if (rotate(command, now)) {
+      return command.getId();
+    }
+    throw AuthException.INVALID_TOKEN.getEx();
+  }
+
+  private boolean rotate(RefreshTokenCommand.RefreshRefreshTokenCommand command, Instant now) {
+    return refreshTokenRepository.rotate(
+            command.getId(),
+            command.getOldToken(),
+            command.getToken(),
+            command.getExpireAt(),
+            now)
+        == 1;
   }
 
   public String on(RefreshTokenCommand.DisableRefreshTokenCommand command) {
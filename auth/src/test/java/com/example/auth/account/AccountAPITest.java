@@ -15,11 +15,14 @@ import com.example.auth.token.access.JwtTokenFactory;
 import com.example.auth.token.access.keys.PrivateSigningKeyRepository;
 import com.example.auth.token.access.keys.PublicSigningKeyRepository;
 import com.example.auth.token.access.keys.SigningKeyService;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.core.json.ErrorResponse;
 import com.example.spring.web.GlobalErrorHandler;
 import java.util.UUID;
 import org.axonframework.extensions.reactor.commandhandling.gateway.ReactorCommandGateway;
 import org.axonframework.extensions.reactor.queryhandling.gateway.ReactorQueryGateway;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.DefaultSubscriptionQueryResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -48,6 +51,7 @@ import reactor.core.publisher.Mono;
       SigningKeyService.class,
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
+      ProjectionAwaiter.class,
     })
 class AccountAPITest {
 
@@ -95,11 +99,16 @@ class AccountAPITest {
 
     when(reactorCommandGateway.send(any())).thenReturn(Mono.just(UUID.randomUUID()));
 
-    when(reactorQueryGateway.subscriptionQuery(any(), any(Class.class)))
+    when(reactorQueryGateway.subscriptionQuery(
+            any(), any(ResponseType.class), any(ResponseType.class)))
         .thenAnswer(
             invocation -> {
               var query = (AccountQuery.GetAccountByIdQuery) invocation.getArguments()[0];
-              return Flux.just(Account.builder().id(query.getId().toString()).build());
+              return Mono.just(
+                  new DefaultSubscriptionQueryResult<>(
+                      Mono.error(AuthException.ACCOUNT_NOT_FOUND.getEx()),
+                      Flux.just(Account.builder().id(query.getId().toString()).build()),
+                      () -> true));
             });
 
     webTestClient
@@ -0,0 +1,46 @@
+package com.example.auth.common;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+class TemplateRendererTest {
+
+  private static final String TEMPLATE = "<p>expires in [[${expiry}]] minutes</p>";
+
+  private final TemplateRenderer templateRenderer =
+      new TemplateRenderer(new SpringTemplateEngine());
+
+  @Test
+  @DisplayName("render should return cached content for the same template and variables")
+  void renderShouldReturnCachedContentForTheSameTemplateAndVariables() {
+    var first = templateRenderer.render(TEMPLATE, Map.of("expiry", 3L));
+    var second = templateRenderer.render(TEMPLATE, Map.of("expiry", 3L));
+
+    Assertions.assertEquals("<p>expires in 3 minutes</p>", first);
+    Assertions.assertSame(first, second);
+  }
+
+  @Test
+  @DisplayName("render should render again when variables differ")
+  void renderShouldRenderAgainWhenVariablesDiffer() {
+    Assertions.assertEquals(
+        "<p>expires in 3 minutes</p>", templateRenderer.render(TEMPLATE, Map.of("expiry", 3L)));
+    Assertions.assertEquals(
+        "<p>expires in 5 minutes</p>", templateRenderer.render(TEMPLATE, Map.of("expiry", 5L)));
+  }
+
+  @Test
+  @DisplayName("configuration refresh should drop rendered content")
+  void configurationRefreshShouldDropRenderedContent() {
+    var first = templateRenderer.render(TEMPLATE, Map.of("expiry", 3L));
+
+    templateRenderer.onConfigurationRefresh();
+
+    var second = templateRenderer.render(TEMPLATE, Map.of("expiry", 3L));
+    Assertions.assertEquals(first, second);
+    Assertions.assertNotSame(first, second);
+  }
+}
@@ -19,6 +19,7 @@ import com.example.auth.token.access.keys.PublicSigningKey;
 import com.example.auth.token.access.keys.PublicSigningKeyRepository;
 import com.example.auth.token.access.keys.SigningKeyService;
 import com.example.auth.token.refresh.RefreshTokenService;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.web.GlobalErrorHandler;
 import java.time.Instant;
 import java.util.List;
@@ -55,6 +56,7 @@ import reactor.core.publisher.Mono;
       SigningKeyService.class,
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
+      ProjectionAwaiter.class,
       ClaimsMethodArgumentResolver.class
     })
 public class GetDevicesAPITest {
@@ -4,6 +4,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import com.example.auth.AuthException;
 import com.example.auth.common.ClientConfiguration;
 import com.example.auth.token.access.JWKSSettings;
 import com.example.auth.token.access.JwtTokenFactory;
@@ -11,10 +12,13 @@ import com.example.auth.token.access.keys.PrivateSigningKeyRepository;
 import com.example.auth.token.access.keys.PublicSigningKeyRepository;
 import com.example.auth.token.access.keys.SigningKeyService;
 import com.example.auth.token.refresh.RefreshTokenService;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.web.GlobalErrorHandler;
 import java.util.UUID;
 import org.axonframework.extensions.reactor.commandhandling.gateway.ReactorCommandGateway;
 import org.axonframework.extensions.reactor.queryhandling.gateway.ReactorQueryGateway;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.DefaultSubscriptionQueryResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +43,7 @@ import reactor.core.publisher.Mono;
       SigningKeyService.class,
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
+      ProjectionAwaiter.class,
     })
 class RegisterDeviceAPITest {
 
@@ -62,8 +67,14 @@ class RegisterDeviceAPITest {
             .build();
 
     when(reactorCommandGateway.send(any())).thenReturn(Mono.just(UUID.randomUUID()));
-    when(reactorQueryGateway.subscriptionQuery(any(), any(Class.class)))
-        .thenReturn(Flux.just(Device.builder().id(UUID.randomUUID().toString()).build()));
+    when(reactorQueryGateway.subscriptionQuery(
+            any(), any(ResponseType.class), any(ResponseType.class)))
+        .thenReturn(
+            Mono.just(
+                new DefaultSubscriptionQueryResult<>(
+                    Mono.error(AuthException.DEVICE_NOT_FOUND.getEx()),
+                    Flux.just(Device.builder().id(UUID.randomUUID().toString()).build()),
+                    () -> true)));
 
     webTestClient
         .post()
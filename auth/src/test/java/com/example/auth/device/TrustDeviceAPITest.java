@@ -19,6 +19,7 @@ import com.example.auth.token.access.keys.PublicSigningKeyRepository;
 import com.example.auth.token.access.keys.SigningKeyService;
 import com.example.auth.token.refresh.RefreshTokenCommand;
 import com.example.auth.token.refresh.RefreshTokenService;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.core.exceptions.CoreExceptions;
 import com.example.spring.core.json.ErrorResponse;
 import com.example.spring.web.GlobalErrorHandler;
@@ -51,6 +52,7 @@ import reactor.core.publisher.Mono;
       SigningKeyService.class,
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
+      ProjectionAwaiter.class,
       ClaimsMethodArgumentResolver.class
     })
 public class TrustDeviceAPITest {
@@ -9,6 +9,7 @@ import com.example.auth.token.access.keys.PrivateSigningKeyRepository;
 import com.example.auth.token.access.keys.PublicSigningKeyRepository;
 import com.example.auth.token.access.keys.SigningKeyService;
 import com.example.auth.token.refresh.RefreshTokenService;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.web.GlobalErrorHandler;
 import java.util.UUID;
 import org.axonframework.extensions.reactor.commandhandling.gateway.ReactorCommandGateway;
@@ -41,6 +42,7 @@ import reactor.core.publisher.Mono;
       SigningKeyService.class,
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
+      ProjectionAwaiter.class,
     })
 public class UpdateDeviceAPITest {
 
@@ -0,0 +1,45 @@
+package com.example.auth.device;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VerifiedDeviceCacheTest {
+
+  private final VerifiedDeviceCache cache =
+      new VerifiedDeviceCache(100, Duration.ofMinutes(10), null);
+
+  @Test
+  @DisplayName("get if verified should return device when secret matches")
+  void getIfVerifiedShouldReturnDeviceWhenSecretMatches() {
+    var id = UUID.randomUUID().toString();
+    var device = Device.builder().id(id).client("web-app").build();
+    cache.put(id, "secret", device);
+
+    var cached = cache.getIfVerified(id, "secret");
+    Assertions.assertTrue(cached.isPresent());
+    Assertions.assertEquals(id, cached.get().getId());
+  }
+
+  @Test
+  @DisplayName("get if verified should return empty when secret does not match")
+  void getIfVerifiedShouldReturnEmptyWhenSecretDoesNotMatch() {
+    var id = UUID.randomUUID().toString();
+    cache.put(id, "secret", Device.builder().id(id).build());
+
+    Assertions.assertTrue(cache.getIfVerified(id, "wrong-secret").isEmpty());
+  }
+
+  @Test
+  @DisplayName("device name updated event should invalidate cached device")
+  void deviceNameUpdatedEventShouldInvalidateCachedDevice() {
+    var id = UUID.randomUUID().toString();
+    cache.put(id, "secret", Device.builder().id(id).name("old name").build());
+
+    cache.on(DeviceEvent.DeviceNameUpdatedEvent.builder().id(id).name("new name").build());
+
+    Assertions.assertTrue(cache.getIfVerified(id, "secret").isEmpty());
+  }
+}
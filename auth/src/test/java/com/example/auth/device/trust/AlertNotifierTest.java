@@ -14,6 +14,7 @@ import com.example.auth.device.DeviceRegistrationConfig;
 import com.example.auth.device.DeviceRepository;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -69,7 +70,8 @@ class AlertNotifierTest {
             .status(AccountStatus.ACTIVE)
             .build());
 
-    when(commandGateway.sendAndWait(any())).thenReturn(UUID.randomUUID().toString());
+    when(commandGateway.send(any()))
+        .thenReturn(CompletableFuture.completedFuture(UUID.randomUUID().toString()));
 
     alertNotifier.on(
         UserDeviceEvent.UserDeviceRegisteredEvent.builder()
@@ -81,7 +83,7 @@ class AlertNotifierTest {
             .build());
 
     ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
-    verify(commandGateway, times(1)).sendAndWait(argument.capture());
+    verify(commandGateway, times(1)).send(argument.capture());
     var value = argument.getValue();
     assertTrue(value instanceof MessagingCommand.SendEmailCommand);
     var sendEmailCommand = (MessagingCommand.SendEmailCommand) value;
@@ -99,7 +101,6 @@ class AlertNotifierTest {
   public void testGivenUserDeviceTrustedEventShouldSendEmail() {
     var deviceId = UUID.randomUUID().toString();
     var accountId = UUID.randomUUID().toString();
-    var id = UUID.randomUUID().toString();
 
     deviceRepository.save(
         Device.builder()
@@ -125,21 +126,18 @@ class AlertNotifierTest {
             .status(AccountStatus.ACTIVE)
             .build());
 
-    userDeviceRepository.save(
-        UserDevice.builder()
-            .id(id)
+    when(commandGateway.send(any()))
+        .thenReturn(CompletableFuture.completedFuture(UUID.randomUUID().toString()));
+
+    alertNotifier.on(
+        UserDeviceEvent.UserDeviceTrustedEvent.builder()
+            .id(UUID.randomUUID().toString())
             .deviceId(deviceId)
             .accountId(accountId)
-            .lastLoginAt(Instant.now())
-            .trusted(true)
             .build());
 
-    when(commandGateway.sendAndWait(any())).thenReturn(UUID.randomUUID().toString());
-
-    alertNotifier.on(UserDeviceEvent.UserDeviceTrustedEvent.builder().id(id).build());
-
     ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
-    verify(commandGateway, times(1)).sendAndWait(argument.capture());
+    verify(commandGateway, times(1)).send(argument.capture());
     var value = argument.getValue();
     assertTrue(value instanceof MessagingCommand.SendEmailCommand);
     var sendEmailCommand = (MessagingCommand.SendEmailCommand) value;
@@ -151,4 +149,55 @@ class AlertNotifierTest {
 
     assertEquals(email.getEmail().getSubject(), sendEmailCommand.getSubject());
   }
+
+  @Test
+  @DisplayName("test given UserDeviceTrustedEvent without ids should send email from user device")
+  public void testGivenUserDeviceTrustedEventWithoutIdsShouldSendEmailFromUserDevice() {
+    var deviceId = UUID.randomUUID().toString();
+    var accountId = UUID.randomUUID().toString();
+    var id = UUID.randomUUID().toString();
+
+    deviceRepository.save(
+        Device.builder()
+            .publicKey("publicKey")
+            .id(deviceId)
+            .hashLength(DeviceRegistrationConfig.HASH_LENGTH)
+            .saltLength(DeviceRegistrationConfig.SALT_LENGTH)
+            .hash("some-hash")
+            .client("web-app")
+            .manufacturer("Windows")
+            .os("windows")
+            .model("DFFG-123")
+            .name("Some Name")
+            .build());
+
+    accountRepository.save(
+        Account.builder()
+            .id(accountId)
+            .hashLength(16)
+            .email("github4sanjay@gmail.com")
+            .saltLength(32)
+            .password("password")
+            .status(AccountStatus.ACTIVE)
+            .build());
+
+    userDeviceRepository.save(
+        UserDevice.builder()
+            .id(id)
+            .deviceId(deviceId)
+            .accountId(accountId)
+            .lastLoginAt(Instant.now())
+            .trusted(true)
+            .build());
+
+    when(commandGateway.send(any()))
+        .thenReturn(CompletableFuture.completedFuture(UUID.randomUUID().toString()));
+
+    alertNotifier.on(UserDeviceEvent.UserDeviceTrustedEvent.builder().id(id).build());
+
+    ArgumentCaptor<Object> argument = ArgumentCaptor.forClass(Object.class);
+    verify(commandGateway, times(1)).send(argument.capture());
+    var sendEmailCommand = (MessagingCommand.SendEmailCommand) argument.getValue();
+    assertEquals("github4sanjay@gmail.com", sendEmailCommand.getTo().get(0));
+  }
 }
@@ -100,7 +100,12 @@ class UserDeviceAggregateTest {
                 .build())
         .when(command)
         .expectSuccessfulHandlerExecution()
-        .expectEvents(UserDeviceEvent.UserDeviceTrustedEvent.builder().id(command.getId()).build());
+        .expectEvents(
+            UserDeviceEvent.UserDeviceTrustedEvent.builder()
+                .id(command.getId())
+                .deviceId(deviceId)
+                .accountId(accountId)
+                .build());
   }
 
   @Test
@@ -11,6 +11,7 @@ import com.example.auth.AuthException;
 import com.example.auth.account.Account;
 import com.example.auth.account.AccountQuery;
 import com.example.auth.common.ClientConfiguration;
+import com.example.auth.common.TemplateRenderer;
 import com.example.auth.device.Device;
 import com.example.auth.device.DeviceController;
 import com.example.auth.device.DeviceQuery;
@@ -69,7 +70,8 @@ import reactor.core.publisher.Mono;
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
       ClaimsMethodArgumentResolver.class,
-      SpringTemplateEngine.class
+      SpringTemplateEngine.class,
+      TemplateRenderer.class
     })
 public class FactorAPITest {
 
@@ -22,6 +22,7 @@ import com.example.auth.token.access.keys.PublicSigningKeyRepository;
 import com.example.auth.token.access.keys.SigningKeyService;
 import com.example.auth.token.refresh.RefreshTokenService;
 import com.example.security.core.RSAUtil;
+import com.example.spring.axon.reactor.ProjectionAwaiter;
 import com.example.spring.core.json.ErrorResponse;
 import com.example.spring.web.GlobalErrorHandler;
 import java.security.InvalidKeyException;
@@ -66,6 +67,7 @@ import reactor.core.publisher.Mono;
       SigningKeyService.class,
       PrivateSigningKeyRepository.class,
       GlobalErrorHandler.class,
+      ProjectionAwaiter.class,
       ClaimsMethodArgumentResolver.class
     })
 class RequestSignatureTest {
@@ -0,0 +1,81 @@
+package com.example.auth.token;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.auth.token.access.keys.PublicSigningKey;
+import com.example.auth.token.access.keys.PublicSigningKeyRepository;
+import com.example.auth.token.refresh.RefreshToken;
+import com.example.auth.token.refresh.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(properties = {"auth.purge.batch-size=2", "auth.purge.max-batches-per-run=5"})
+@Import(value = {ExpiredTokenReaper.class, PurgeSettings.class, SimpleMeterRegistry.class})
+class ExpiredTokenReaperTest {
+
+  @Autowired private ExpiredTokenReaper expiredTokenReaper;
+  @Autowired private RefreshTokenRepository refreshTokenRepository;
+  @Autowired private PublicSigningKeyRepository publicSigningKeyRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  @DisplayName("test purge should delete expired refresh tokens and signing keys in batches")
+  public void testPurgeShouldDeleteExpiredRefreshTokensAndSigningKeysInBatches() {
+    for (int i = 0; i < 5; i++) {
+      refreshTokenRepository.save(refreshToken(Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+    var chainExpired = refreshToken(Instant.now().plus(1, ChronoUnit.HOURS));
+    chainExpired.setRefreshChainExpireAt(Instant.now().minus(1, ChronoUnit.MINUTES));
+    refreshTokenRepository.save(chainExpired);
+    var valid = refreshTokenRepository.save(refreshToken(Instant.now().plus(1, ChronoUnit.HOURS)));
+    publicSigningKeyRepository.save(signingKey(Instant.now().minus(1, ChronoUnit.MINUTES)));
+    var publishedKey =
+        publicSigningKeyRepository.save(signingKey(Instant.now().plus(1, ChronoUnit.HOURS)));
+
+    expiredTokenReaper.purge();
+
+    assertEquals(1, refreshTokenRepository.count());
+    assertTrue(refreshTokenRepository.findById(valid.getId()).isPresent());
+    assertEquals(1, publicSigningKeyRepository.count());
+    assertTrue(publicSigningKeyRepository.findById(publishedKey.getId()).isPresent());
+    assertEquals(
+        6, meterRegistry.counter("auth.purge.rows", "table", "refresh_tokens").count());
+    assertEquals(1, meterRegistry.counter("auth.purge.rows", "table", "signing_keys").count());
+  }
+
+  private RefreshToken refreshToken(Instant expireAt) {
+    return RefreshToken.builder()
+        .id(UUID.randomUUID().toString())
+        .deviceId(UUID.randomUUID().toString())
+        .subject("subject")
+        .amr(Claims.AMR.pwd)
+        .token(UUID.randomUUID().toString())
+        .createdAt(Instant.now().minus(2, ChronoUnit.HOURS))
+        .expireAt(expireAt)
+        .refreshChainExpiry(Duration.ofDays(1))
+        .refreshChainExpireAt(Instant.now().plus(1, ChronoUnit.DAYS))
+        .build();
+  }
+
+  private PublicSigningKey signingKey(Instant expireAt) {
+    return PublicSigningKey.builder()
+        .id(UUID.randomUUID().toString())
+        .publicKey("publicKey")
+        .expireAt(expireAt)
+        .build();
+  }
+}
@@ -1,6 +1,9 @@
 package com.example.auth.token.access;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.auth0.jwt.JWT;
 import com.example.auth.AuthException;
@@ -40,6 +43,7 @@ class JwtTokenFactoryTest {
   @Autowired private JwtTokenFactory jwtTokenFactory;
   @Autowired private SigningKeyService signingKeyService;
   @Autowired private JWKSSettings jwksSettings;
+  @Autowired private ClientConfiguration clientConfiguration;
 
   @Test
   @DisplayName("test decode token when access token is valid should return expected claims")
@@ -126,4 +130,63 @@ class JwtTokenFactoryTest {
             ApplicationException.class, () -> jwtTokenFactory.decodeToken(token));
     Assertions.assertEquals(AuthException.EXPIRED_TOKEN.getEx().getCode(), exception.getCode());
   }
+
+  @Test
+  @DisplayName(
+      "test decode token when signing key is unknown should return invalid token exception")
+  public void testDecodeTokenWhenSigningKeyIsUnknownShouldReturnInvalidTokenException() {
+    var signingKey = signingKeyService.getCurrentSigningKey();
+    var token =
+        JWT.create()
+            .withKeyId(UUID.randomUUID().toString())
+            .withIssuer(jwksSettings.getIssuer())
+            .withExpiresAt(Date.from(Instant.now().plus(5, ChronoUnit.MINUTES)))
+            .sign(signingKey.getSignAlgorithm());
+
+    var exception =
+        Assertions.assertThrows(
+            ApplicationException.class, () -> jwtTokenFactory.decodeToken(token));
+    Assertions.assertEquals(AuthException.INVALID_TOKEN.getEx().getCode(), exception.getCode());
+  }
+
+  @Test
+  @DisplayName("test decode token when decoded twice should reuse verifier for the key")
+  public void testDecodeTokenWhenDecodedTwiceShouldReuseVerifierForTheKey() {
+    var accountId = UUID.randomUUID().toString();
+    var accountSubject =
+        Claims.AccountSubject.builder().id(accountId).email("github4sanjay@gmail.com").build();
+    var device = Device.builder().id(UUID.randomUUID().toString()).client("web-app").build();
+    var claims = new Claims(accountSubject, device, Claims.AMR.pwd);
+    // a factory of its own, so the verifier cache starts empty
+    var keys = spy(signingKeyService);
+    var factory = new JwtTokenFactory(jwksSettings, keys, clientConfiguration);
+    var first = factory.createAccessJwtToken(claims, "web-app", accountId);
+    var second = factory.createAccessJwtToken(claims, "web-app", accountId);
+
+    assertEquals(
+        claims.getSubject().get(), factory.decodeToken(first.getToken()).getSubject().get());
+    assertEquals(
+        claims.getSubject().get(), factory.decodeToken(second.getToken()).getSubject().get());
+    verify(keys, times(1)).getByKeyId(JWT.decode(first.getToken()).getKeyId());
+  }
+
+  @Test
+  @DisplayName("test create access token should use header of current signing key")
+  public void testCreateAccessTokenShouldUseHeaderOfCurrentSigningKey() {
+    var accountId = UUID.randomUUID().toString();
+    var accountSubject =
+        Claims.AccountSubject.builder().id(accountId).email("github4sanjay@gmail.com").build();
+    var device = Device.builder().id(UUID.randomUUID().toString()).client("web-app").build();
+    var claims = new Claims(accountSubject, device, Claims.AMR.pwd);
+
+    var signingKey = signingKeyService.getCurrentSigningKey();
+    var token = jwtTokenFactory.createAccessJwtToken(claims, "web-app", accountId).getToken();
+    var decoded = JWT.decode(token);
+
+    assertEquals(signingKey.getId(), decoded.getKeyId());
+    assertEquals("RS256", decoded.getAlgorithm());
+    assertTrue(token.startsWith(signingKey.getEncodedHeader() + "."));
+    assertEquals(jwksSettings.getIssuer(), decoded.getIssuer());
+    assertEquals(List.of(Claims.AMR.pwd.name()), decoded.getClaim("amr").asList(String.class));
+  }
 }
@@ -0,0 +1,87 @@
+package com.example.auth.token.access.keys;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.auth.token.access.JWKSSettings;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataJpaTest
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(properties = "auth.jwks.publish-ahead=PT20m")
+@Import(value = {SigningKeyService.class, JWKSSettings.class, PrivateSigningKeyRepository.class})
+class SigningKeyServiceTest {
+
+  @Autowired private SigningKeyService signingKeyService;
+  @Autowired private PrivateSigningKeyRepository privateSigningKeyRepository;
+  @Autowired private JWKSSettings jwksSettings;
+
+  @BeforeEach
+  public void beforeEach() {
+    privateSigningKeyRepository.clearKeys();
+  }
+
+  @Test
+  @DisplayName("test prepare next signing key should publish it before rotation")
+  public void testPrepareNextSigningKeyShouldPublishItBeforeRotation() {
+    var current = signingKeyService.getCurrentSigningKey();
+    var publishedBefore = signingKeyService.getPublishedKeys().size();
+
+    signingKeyService.prepareNextSigningKey();
+
+    assertEquals(publishedBefore + 1, signingKeyService.getPublishedKeys().size());
+    assertEquals(current.getId(), signingKeyService.getCurrentSigningKey().getId());
+  }
+
+  @Test
+  @DisplayName("test rotate signing key should activate the prepared key")
+  public void testRotateSigningKeyShouldActivateThePreparedKey() {
+    var current = signingKeyService.getCurrentSigningKey();
+    signingKeyService.prepareNextSigningKey();
+    var published = signingKeyService.getPublishedKeys();
+
+    privateSigningKeyRepository.clearKeys();
+    var next = signingKeyService.rotateSigningKey();
+
+    assertNotEquals(current.getId(), next.getId());
+    assertTrue(published.stream().anyMatch(key -> key.getId().equals(next.getId())));
+    assertSame(next, signingKeyService.getCurrentSigningKey());
+  }
+
+  @Test
+  @DisplayName("test rotate signing key when key is active should keep it")
+  public void testRotateSigningKeyWhenKeyIsActiveShouldKeepIt() {
+    var current = signingKeyService.getCurrentSigningKey();
+
+    assertSame(current, signingKeyService.rotateSigningKey());
+  }
+
+  @Test
+  @DisplayName("test get current signing key when rotation is due should leave the swap to rotate")
+  public void testGetCurrentSigningKeyWhenRotationIsDueShouldLeaveTheSwapToRotate() {
+    var current = signingKeyService.getCurrentSigningKey();
+    privateSigningKeyRepository.activate(current, Instant.now().minusSeconds(1));
+    signingKeyService.prepareNextSigningKey();
+
+    assertSame(current, signingKeyService.getCurrentSigningKey());
+
+    var next = signingKeyService.rotateSigningKey();
+    assertNotEquals(current.getId(), next.getId());
+    var published =
+        signingKeyService.getPublishedKeys().stream()
+            .filter(key -> key.getId().equals(next.getId()))
+            .findFirst()
+            .orElseThrow();
+    assertEquals(
+        published.getExpireAt().minus(jwksSettings.getCoolDownPeriod()),
+        privateSigningKeyRepository.findRotateAt().orElseThrow());
+  }
+}
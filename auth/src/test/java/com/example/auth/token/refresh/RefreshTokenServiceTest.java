@@ -65,6 +65,7 @@ class RefreshTokenServiceTest {
                     RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
                         .identifier(UUID.randomUUID().toString())
                         .deviceId(UUID.randomUUID().toString())
+                        .oldToken(UUID.randomUUID().toString())
                         .token(UUID.randomUUID().toString())
                         .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
                         .build()));
@@ -78,10 +79,12 @@ class RefreshTokenServiceTest {
   public void
       testRefreshTokenRefreshedEventWhenRefreshTokenPresentButExpiredShouldReturnExpiredTokenException() {
 
+    var oldToken = UUID.randomUUID().toString();
     var command =
         RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
             .identifier(UUID.randomUUID().toString())
             .deviceId(UUID.randomUUID().toString())
+            .oldToken(oldToken)
             .token(UUID.randomUUID().toString())
             .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
             .build();
@@ -89,7 +92,7 @@ class RefreshTokenServiceTest {
     var refreshToken =
         RefreshToken.builder()
             .amr(Claims.AMR.pwd)
-            .token(UUID.randomUUID().toString())
+            .token(oldToken)
             .deviceId(UUID.randomUUID().toString())
             .id(command.getId())
             .subject(
@@ -117,10 +120,12 @@ class RefreshTokenServiceTest {
   public void
       testRefreshTokenRefreshedEventWhenRefreshTokenPresentButExpiredChainExpiryShouldReturnExpiredTokenException() {
 
+    var oldToken = UUID.randomUUID().toString();
     var command =
         RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
             .identifier(UUID.randomUUID().toString())
             .deviceId(UUID.randomUUID().toString())
+            .oldToken(oldToken)
             .token(UUID.randomUUID().toString())
             .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
             .build();
@@ -128,7 +133,7 @@ class RefreshTokenServiceTest {
     var refreshToken =
         RefreshToken.builder()
             .amr(Claims.AMR.pwd)
-            .token(UUID.randomUUID().toString())
+            .token(oldToken)
             .deviceId(UUID.randomUUID().toString())
             .id(command.getId())
             .subject(
@@ -154,10 +159,12 @@ class RefreshTokenServiceTest {
   @DisplayName("test RefreshTokenRefreshedEvent when refresh token present should update the token")
   public void testRefreshTokenRefreshedEventWhenRefreshTokenPresentShouldUpdateTheToken() {
 
+    var oldToken = UUID.randomUUID().toString();
     var command =
         RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
             .identifier(UUID.randomUUID().toString())
             .deviceId(UUID.randomUUID().toString())
+            .oldToken(oldToken)
             .token(UUID.randomUUID().toString())
             .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
             .build();
@@ -165,7 +172,7 @@ class RefreshTokenServiceTest {
     var refreshToken =
         RefreshToken.builder()
             .amr(Claims.AMR.pwd)
-            .token(UUID.randomUUID().toString())
+            .token(oldToken)
             .deviceId(UUID.randomUUID().toString())
             .id(command.getId())
             .subject(
@@ -257,4 +264,153 @@ class RefreshTokenServiceTest {
 
     assertFalse(refreshTokenRepository.findById(refreshToken.getId()).isPresent());
   }
+
+  @Test
+  @DisplayName(
+      "test RefreshTokenRefreshedEvent when generated token is valid should rotate it in place")
+  public void testRefreshTokenRefreshedEventWhenGeneratedTokenIsValidShouldRotateItInPlace() {
+    var identifier = UUID.randomUUID().toString();
+    var deviceId = UUID.randomUUID().toString();
+    var generate =
+        RefreshTokenCommand.GenerateRefreshTokenCommand.builder()
+            .identifier(identifier)
+            .deviceId(deviceId)
+            .subject("subject")
+            .amr(Claims.AMR.pwd)
+            .token(UUID.randomUUID().toString())
+            .createdAt(Instant.now())
+            .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
+            .refreshChainExpiry(Duration.ofDays(10))
+            .build();
+    refreshTokenService.on(generate);
+
+    var refresh =
+        RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
+            .identifier(identifier)
+            .deviceId(deviceId)
+            .oldToken(generate.getToken())
+            .token(UUID.randomUUID().toString())
+            .expireAt(Instant.now().plus(2, ChronoUnit.HOURS))
+            .build();
+    refreshTokenService.on(refresh);
+
+    var refreshToken = refreshTokenRepository.findByDeviceIdAndToken(deviceId, refresh.getToken());
+    assertTrue(refreshToken.isPresent());
+    assertEquals(generate.getId(), refreshToken.get().getId());
+    assertTrue(
+        refreshTokenRepository.findByDeviceIdAndToken(deviceId, generate.getToken()).isEmpty());
+  }
+
+  @Test
+  @DisplayName(
+      "test RefreshTokenRefreshedEvent when old token was already rotated should return invalid token exception")
+  public void
+      testRefreshTokenRefreshedEventWhenOldTokenWasAlreadyRotatedShouldReturnInvalidTokenException() {
+    var identifier = UUID.randomUUID().toString();
+    var deviceId = UUID.randomUUID().toString();
+    var generate =
+        RefreshTokenCommand.GenerateRefreshTokenCommand.builder()
+            .identifier(identifier)
+            .deviceId(deviceId)
+            .subject("subject")
+            .amr(Claims.AMR.pwd)
+            .token(UUID.randomUUID().toString())
+            .createdAt(Instant.now())
+            .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
+            .refreshChainExpiry(Duration.ofDays(10))
+            .build();
+    refreshTokenService.on(generate);
+
+    var first =
+        RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
+            .identifier(identifier)
+            .deviceId(deviceId)
+            .oldToken(generate.getToken())
+            .token(UUID.randomUUID().toString())
+            .expireAt(Instant.now().plus(2, ChronoUnit.HOURS))
+            .build();
+    refreshTokenService.on(first);
+
+    var exception =
+        Assertions.assertThrows(
+            ApplicationException.class,
+            () ->
+                refreshTokenService.on(
+                    RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
+                        .identifier(identifier)
+                        .deviceId(deviceId)
+                        .oldToken(generate.getToken())
+                        .token(UUID.randomUUID().toString())
+                        .expireAt(Instant.now().plus(2, ChronoUnit.HOURS))
+                        .build()));
+
+    Assertions.assertEquals(AuthException.INVALID_TOKEN.getEx().getCode(), exception.getCode());
+    assertTrue(
+        refreshTokenRepository.findByDeviceIdAndToken(deviceId, first.getToken()).isPresent());
+  }
+
+  @Test
+  @DisplayName(
+      "test RefreshTokenRefreshedEvent when generated token chain expired should return expired token exception")
+  public void
+      testRefreshTokenRefreshedEventWhenGeneratedTokenChainExpiredShouldReturnExpiredTokenException() {
+    var identifier = UUID.randomUUID().toString();
+    var deviceId = UUID.randomUUID().toString();
+    var token = UUID.randomUUID().toString();
+    refreshTokenService.on(
+        RefreshTokenCommand.GenerateRefreshTokenCommand.builder()
+            .identifier(identifier)
+            .deviceId(deviceId)
+            .subject("subject")
+            .amr(Claims.AMR.pwd)
+            .token(token)
+            .createdAt(Instant.now().minus(2, ChronoUnit.DAYS))
+            .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
+            .refreshChainExpiry(Duration.ofDays(1))
+            .build());
+
+    var exception =
+        Assertions.assertThrows(
+            ApplicationException.class,
+            () ->
+                refreshTokenService.on(
+                    RefreshTokenCommand.RefreshRefreshTokenCommand.builder()
+                        .identifier(identifier)
+                        .deviceId(deviceId)
+                        .oldToken(token)
+                        .token(UUID.randomUUID().toString())
+                        .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                        .build()));
+
+    Assertions.assertEquals(AuthException.EXPIRED_TOKEN.getEx().getCode(), exception.getCode());
+  }
+
+  @Test
+  @DisplayName("test delete all by device id and subject should only delete matching tokens")
+  public void testDeleteAllByDeviceIdAndSubjectShouldOnlyDeleteMatchingTokens() {
+    var deviceId = UUID.randomUUID().toString();
+    var kept = refreshToken(deviceId, "other-subject");
+    refreshTokenRepository.save(refreshToken(deviceId, "subject"));
+    refreshTokenRepository.save(refreshToken(deviceId, "subject"));
+    refreshTokenRepository.save(kept);
+
+    assertEquals(2, refreshTokenRepository.deleteAllByDeviceIdAndSubject(deviceId, "subject"));
+    assertTrue(
+        refreshTokenRepository.findByDeviceId(deviceId).stream()
+            .allMatch(token -> token.getSubject().equals("other-subject")));
+    assertTrue(refreshTokenRepository.findById(kept.getId()).isPresent());
+  }
+
+  private RefreshToken refreshToken(String deviceId, String subject) {
+    return RefreshToken.builder()
+        .amr(Claims.AMR.pwd)
+        .token(UUID.randomUUID().toString())
+        .deviceId(deviceId)
+        .id(UUID.randomUUID().toString())
+        .subject(subject)
+        .expireAt(Instant.now().plus(1, ChronoUnit.HOURS))
+        .refreshChainExpiry(Duration.ofDays(1))
+        .createdAt(Instant.now())
+        .build();
+  }
 }
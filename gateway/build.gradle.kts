@@ -48,6 +48,7 @@ dependencies {
     implementation("software.amazon.awssdk:sts")
 
     implementation(project(":security-core"))
+    implementation(project(":rate-limiter"))
 
     implementation(project(":spring-core"))
 
@@ -2,11 +2,10 @@ package com.example.gateway;
 
 import static com.example.gateway.GatewayExceptions.*;
 
+import com.example.security.core.PublicKeyCache;
 import com.example.spring.core.exceptions.CoreExceptions;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.security.SignatureException;
-import java.security.spec.InvalidKeySpecException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -23,10 +22,12 @@ import reactor.core.publisher.Mono;
 public class AddAuthHeaderGatewayFilter
     implements GatewayFilterFactory<AbstractGatewayFilterFactory.NameConfig> {
   private final KeyService keyService;
+  private final PublicKeyCache publicKeyCache;
 
   @Autowired
-  public AddAuthHeaderGatewayFilter(KeyService keyService) {
+  public AddAuthHeaderGatewayFilter(KeyService keyService, PublicKeyCache publicKeyCache) {
     this.keyService = keyService;
+    this.publicKeyCache = publicKeyCache;
   }
 
   @Override
@@ -91,14 +92,13 @@ public class AddAuthHeaderGatewayFilter
                       .doOnNext(
                           keyResponse -> {
                             try {
-                              if (!expectedSignature.verify(
-                                  actualSignature, keyResponse.getPublicKey())) {
+                              var publicKey =
+                                  publicKeyCache.get(key, keyResponse.getPublicKey());
+                              if (!expectedSignature.verify(actualSignature, publicKey)) {
                                 throw INVALID_SIGNATURE.ex;
                               }
-                            } catch (NoSuchAlgorithmException
-                                | InvalidKeyException
+                            } catch (InvalidKeyException
                                 | SignatureException
-                                | InvalidKeySpecException
                                 | IllegalArgumentException e) {
                               throw INVALID_SIGNATURE.ex;
                             }
@@ -0,0 +1,22 @@
+package com.example.gateway;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Limits for the request bodies {@link GatewayContextFilter} keeps in memory. Only routes with
+ * {@link AddAuthHeaderGatewayFilter} or the {@code cache-request-body: true} metadata have their
+ * body cached; a route may lower or raise the cap with {@code cache-request-body-max-size}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.body-cache")
+public class BodyCacheSettings {
+
+  /** Largest body cached for a route that does not set its own cap. */
+  private DataSize maxSize = DataSize.ofKilobytes(256);
+}
@@ -1,15 +1,81 @@
 package com.example.gateway;
 
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 @Getter
 @Setter
 public class GatewayContext {
   public static final String CACHE_GATEWAY_CONTEXT = "cacheGatewayContext";
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private DataBuffer body;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Charset bodyCharset;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean form;
+
   private String cacheBody;
   private MultiValueMap<String, String> formData;
   private String path;
   private String query;
+
+  /**
+   * Keeps the request body, owned and released by {@link GatewayContextFilter} when the exchange
+   * completes. It is only decoded if a filter asks for {@link #getCacheBody()}, or parsed if it is
+   * a form and a filter asks for {@link #getFormData()}.
+   */
+  void cacheBody(DataBuffer body, Charset charset, boolean form) {
+    this.body = body;
+    this.bodyCharset = charset;
+    this.form = form;
+  }
+
+  /** The body as text, or {@code null} for forms, whose fields are in {@link #getFormData()}. */
+  public String getCacheBody() {
+    if (cacheBody == null && body != null && !form) {
+      cacheBody = decode(body, bodyCharset);
+    }
+    return cacheBody;
+  }
+
+  public MultiValueMap<String, String> getFormData() {
+    if (formData == null && body != null && form) {
+      formData = parseForm(decode(body, bodyCharset), bodyCharset);
+    }
+    return formData;
+  }
+
+  private static String decode(DataBuffer body, Charset charset) {
+    return body.toString(body.readPosition(), body.readableByteCount(), charset);
+  }
+
+  private static MultiValueMap<String, String> parseForm(String body, Charset charset) {
+    var formData = new LinkedMultiValueMap<String, String>();
+    for (String pair : body.split("&")) {
+      if (pair.isEmpty()) {
+        continue;
+      }
+      var separator = pair.indexOf('=');
+      if (separator < 0) {
+        formData.add(URLDecoder.decode(pair, charset), null);
+      } else {
+        formData.add(
+            URLDecoder.decode(pair.substring(0, separator), charset),
+            URLDecoder.decode(pair.substring(separator + 1), charset));
+      }
+    }
+    return formData;
+  }
 }
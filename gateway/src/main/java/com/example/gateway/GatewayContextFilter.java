@@ -1,36 +1,46 @@
 package com.example.gateway;
 
-import io.netty.buffer.ByteBufAllocator;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import static com.example.gateway.GatewayExceptions.REQUEST_BODY_TOO_LARGE;
+
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Map;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.NettyDataBufferFactory;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.server.HandlerStrategies;
-import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Puts a {@link GatewayContext} on every exchange. For routes with {@link
+ * AddAuthHeaderGatewayFilter}, whose request signature covers the body, and routes whose metadata
+ * has {@code cache-request-body: true}, it also keeps the request body so it can be read here and
+ * still be sent downstream.
+ */
 @Component
 public class GatewayContextFilter implements GlobalFilter, Ordered {
+  public static final String CACHE_BODY_METADATA = "cache-request-body";
+  public static final String MAX_BODY_SIZE_METADATA = "cache-request-body-max-size";
   private static final byte[] EMPTY_BODY = new byte[0];
-  private static final List<HttpMessageReader<?>> messageReaders =
-      HandlerStrategies.withDefaults().messageReaders();
+
+  private final BodyCacheSettings bodyCacheSettings;
+  private final RouteConfiguration routeConfiguration;
+
+  public GatewayContextFilter(
+      BodyCacheSettings bodyCacheSettings, RouteConfiguration routeConfiguration) {
+    this.bodyCacheSettings = bodyCacheSettings;
+    this.routeConfiguration = routeConfiguration;
+  }
 
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -40,134 +50,69 @@ public class GatewayContextFilter implements GlobalFilter, Ordered {
     gatewayContext.setPath(path);
     gatewayContext.setQuery(request.getURI().getQuery());
     exchange.getAttributes().put(GatewayContext.CACHE_GATEWAY_CONTEXT, gatewayContext);
-    var headers = request.getHeaders();
-    var contentType = headers.getContentType();
+    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+    if (route == null || !cachesBody(route)) {
+      return chain.filter(exchange);
+    }
     if (request.getMethod() == HttpMethod.POST
         || request.getMethod() == HttpMethod.PUT
         || request.getMethod() == HttpMethod.PATCH) {
-      Mono<Void> voidMono;
-      if (MediaType.APPLICATION_FORM_URLENCODED.equals(contentType)) {
-        voidMono = readFormData(exchange, chain, gatewayContext);
-      } else {
-        voidMono = readBody(exchange, chain, gatewayContext);
-      }
-      return voidMono;
+      return readBody(exchange, chain, gatewayContext, maxBodySize(route));
     }
     return chain.filter(exchange);
   }
 
-  private Mono<Void> readFormData(
-      ServerWebExchange exchange, GatewayFilterChain chain, GatewayContext gatewayContext) {
-    final var request = exchange.getRequest();
-    var headers = request.getHeaders();
-    return exchange
-        .getFormData()
-        .doOnNext(gatewayContext::setFormData)
-        .then(
-            Mono.defer(
-                () -> {
-                  var charset =
-                      (headers.getContentType() == null
-                              || headers.getContentType().getCharset() == null)
-                          ? StandardCharsets.UTF_8
-                          : headers.getContentType().getCharset();
-                  var charsetName = charset.name();
-                  var formData = gatewayContext.getFormData();
-                  if (null == formData || formData.isEmpty()) {
-                    return chain.filter(exchange);
-                  }
-                  var formDataBodyBuilder = new StringBuilder();
-                  String entryKey;
-                  List<String> entryValue;
-                  try {
-                    for (Map.Entry<String, List<String>> entry : formData.entrySet()) {
-                      entryKey = entry.getKey();
-                      entryValue = entry.getValue();
-                      if (entryValue.size() > 1) {
-                        for (String value : entryValue) {
-                          formDataBodyBuilder
-                              .append(entryKey)
-                              .append("=")
-                              .append(URLEncoder.encode(value, charsetName))
-                              .append("&");
-                        }
-                      } else {
-                        formDataBodyBuilder
-                            .append(entryKey)
-                            .append("=")
-                            .append(URLEncoder.encode(entryValue.get(0), charsetName))
-                            .append("&");
-                      }
-                    }
-                  } catch (UnsupportedEncodingException e) {
-                    // ignore URLEncode Exception
-                  }
-                  var formDataBodyString = "";
-                  if (formDataBodyBuilder.length() > 0) {
-                    formDataBodyString =
-                        formDataBodyBuilder.substring(0, formDataBodyBuilder.length() - 1);
-                  }
-                  var bodyBytes = formDataBodyString.getBytes(charset);
-                  var contentLength = bodyBytes.length;
-                  var decorator =
-                      new ServerHttpRequestDecorator(request) {
-                        @Override
-                        @NonNull
-                        public HttpHeaders getHeaders() {
-                          HttpHeaders httpHeaders = new HttpHeaders();
-                          httpHeaders.putAll(super.getHeaders());
-                          if (contentLength > 0) {
-                            httpHeaders.setContentLength(contentLength);
-                          } else {
-                            httpHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
-                          }
-                          return httpHeaders;
-                        }
+  private boolean cachesBody(Route route) {
+    return routeConfiguration.getRoutesVerifyingSignature().contains(route.getId())
+        || Boolean.parseBoolean(String.valueOf(route.getMetadata().get(CACHE_BODY_METADATA)));
+  }
 
-                        @Override
-                        @NonNull
-                        public Flux<DataBuffer> getBody() {
-                          return DataBufferUtils.read(
-                              new ByteArrayResource(bodyBytes),
-                              new NettyDataBufferFactory(ByteBufAllocator.DEFAULT),
-                              contentLength);
-                        }
-                      };
-                  var mutateExchange = exchange.mutate().request(decorator).build();
-                  return chain.filter(mutateExchange);
-                }));
+  private int maxBodySize(Route route) {
+    var maxSize = route.getMetadata().get(MAX_BODY_SIZE_METADATA);
+    var dataSize =
+        maxSize == null ? bodyCacheSettings.getMaxSize() : DataSize.parse(maxSize.toString());
+    return Math.toIntExact(dataSize.toBytes());
   }
 
+  /**
+   * Joins the body into one buffer of at most {@code maxBodySize} bytes without copying it. Each
+   * downstream read gets a retained slice of that buffer, which is released once the rest of the
+   * chain completes. Forms are kept the same way, as the raw bytes the client sent.
+   */
   private Mono<Void> readBody(
-      ServerWebExchange exchange, GatewayFilterChain chain, GatewayContext gatewayContext) {
-    return DataBufferUtils.join(exchange.getRequest().getBody())
-        .map(
-            dataBuffer -> {
-              byte[] bytes = new byte[dataBuffer.readableByteCount()];
-              dataBuffer.read(bytes);
-              DataBufferUtils.release(dataBuffer);
-              return bytes;
-            })
-        .defaultIfEmpty(EMPTY_BODY)
+      ServerWebExchange exchange,
+      GatewayFilterChain chain,
+      GatewayContext gatewayContext,
+      int maxBodySize) {
+    var contentType = exchange.getRequest().getHeaders().getContentType();
+    var charset =
+        contentType == null || contentType.getCharset() == null
+            ? StandardCharsets.UTF_8
+            : contentType.getCharset();
+    var form = MediaType.APPLICATION_FORM_URLENCODED.equals(contentType);
+    return DataBufferUtils.join(exchange.getRequest().getBody(), maxBodySize)
+        .onErrorMap(DataBufferLimitException.class, e -> REQUEST_BODY_TOO_LARGE.ex)
+        .defaultIfEmpty(exchange.getResponse().bufferFactory().wrap(EMPTY_BODY))
         .flatMap(
-            bytes -> {
+            body -> {
+              gatewayContext.cacheBody(body, charset, form);
+              var index = body.readPosition();
+              var length = body.readableByteCount();
               var mutatedRequest =
                   new ServerHttpRequestDecorator(exchange.getRequest()) {
                     @Override
                     @NonNull
                     public Flux<DataBuffer> getBody() {
-                      if (bytes.length > 0) {
-                        var dataBufferFactory = exchange.getResponse().bufferFactory();
-                        return Flux.just(dataBufferFactory.wrap(bytes));
+                      if (length > 0) {
+                        return Flux.defer(() -> Flux.just(body.retainedSlice(index, length)));
                       }
                       return Flux.empty();
                     }
                   };
               var mutatedExchange = exchange.mutate().request(mutatedRequest).build();
-              return ServerRequest.create(mutatedExchange, messageReaders)
-                  .bodyToMono(String.class)
-                  .doOnNext(gatewayContext::setCacheBody)
-                  .then(chain.filter(mutatedExchange));
+              return chain
+                  .filter(mutatedExchange)
+                  .doFinally(signal -> DataBufferUtils.release(body));
             });
   }
 
@@ -15,6 +15,9 @@ public enum GatewayExceptions {
   KEY_HEADER_REQUIRED(
       new ApplicationException(
           "key-header-required", "x-key header required", HttpStatus.UNAUTHORIZED)),
+  REQUEST_BODY_TOO_LARGE(
+      new ApplicationException(
+          "request-body-too-large", "request body too large", HttpStatus.PAYLOAD_TOO_LARGE)),
   ;
 
   public final ApplicationException ex;
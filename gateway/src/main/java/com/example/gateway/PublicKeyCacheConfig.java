@@ -0,0 +1,23 @@
+package com.example.gateway;
+
+import com.example.security.core.PublicKeyCache;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Parsed public keys of the api keys that sign requests, see {@link AddAuthHeaderGatewayFilter}. */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.public-key-cache")
+public class PublicKeyCacheConfig {
+
+  private Integer maximumSize = 10_000;
+
+  @Bean
+  public PublicKeyCache apiKeyPublicKeyCache() {
+    return new PublicKeyCache(maximumSize);
+  }
+}
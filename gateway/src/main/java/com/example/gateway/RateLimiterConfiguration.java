@@ -0,0 +1,20 @@
+package com.example.gateway;
+
+import java.net.InetSocketAddress;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+/** Key resolvers for the {@code RequestRateLimiter} routes of {@link SlidingWindowRateLimiter}. */
+@Configuration
+public class RateLimiterConfiguration {
+
+  /** Keys requests by client address, for routes that are called before login. */
+  @Bean
+  public KeyResolver remoteAddressKeyResolver() {
+    return exchange ->
+        Mono.justOrEmpty(exchange.getRequest().getRemoteAddress())
+            .map(InetSocketAddress::getHostString);
+  }
+}
@@ -14,6 +14,7 @@ public class RouteConfiguration {
   private final GatewayProperties gatewayProperties;
   private final Map<HttpMethod, Set<String>> routesNotRequireAuthentication = new HashMap<>();
   private final Set<String> routesWithoutMethodNotRequireAuthentication = new HashSet<>();
+  private final Set<String> routesVerifyingSignature = new HashSet<>();
 
   @PostConstruct
   public void postConstruct() {
@@ -24,7 +25,9 @@ public class RouteConfiguration {
           isGatewayHeaderFilterAvailable = true;
         }
       }
-      if (!isGatewayHeaderFilterAvailable) {
+      if (isGatewayHeaderFilterAvailable) {
+        routesVerifyingSignature.add(routeDefinition.getId());
+      } else {
         var predicates = routeDefinition.getPredicates();
         if (predicates.size() == 0) continue;
         if (predicates.size() == 1) { // just path
@@ -56,4 +59,9 @@ public class RouteConfiguration {
   public Set<String> getRoutesWithoutMethodNotRequireAuthentication() {
     return routesWithoutMethodNotRequireAuthentication;
   }
+
+  /** Ids of the routes whose request signature AddAuthHeaderGatewayFilter verifies. */
+  public Set<String> getRoutesVerifyingSignature() {
+    return routesVerifyingSignature;
+  }
 }
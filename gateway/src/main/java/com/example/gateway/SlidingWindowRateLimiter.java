@@ -0,0 +1,90 @@
+package com.example.gateway;
+
+import com.example.ratelimit.Acquisition;
+import com.example.ratelimit.Limit;
+import com.example.ratelimit.LocalRateLimiter;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+/**
+ * Backs the {@code RequestRateLimiter} route filter with the sliding-window {@link
+ * LocalRateLimiter}, so a route allows at most {@code permits} requests per key in any {@code
+ * period}. Limits are kept per gateway instance, not shared: behind a load balancer with n
+ * instances a key gets up to n times {@code permits}, so size the limit per instance. The services
+ * behind the gateway keep their own limits in Redis. Configure a route with:
+ *
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     key-resolver: "#{@remoteAddressKeyResolver}"
+ *     sliding-window-rate-limiter.permits: 20
+ *     sliding-window-rate-limiter.period: PT1m
+ * </pre>
+ */
+@Component
+public class SlidingWindowRateLimiter
+    extends AbstractRateLimiter<SlidingWindowRateLimiter.Config> {
+
+  public static final String CONFIGURATION_PROPERTY_NAME = "sliding-window-rate-limiter";
+  public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+  private final LocalRateLimiter rateLimiter;
+
+  @Autowired
+  public SlidingWindowRateLimiter(ConfigurationService configurationService) {
+    this(configurationService, Clock.systemUTC());
+  }
+
+  SlidingWindowRateLimiter(ConfigurationService configurationService, Clock clock) {
+    super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+    this.rateLimiter = new LocalRateLimiter(clock);
+  }
+
+  @Override
+  public Mono<Response> isAllowed(String routeId, String id) {
+    var config = getConfig().get(routeId);
+    if (config == null) {
+      return Mono.error(
+          new IllegalArgumentException("No Configuration found for route " + routeId));
+    }
+    var acquisition = rateLimiter.tryAcquire(routeId + "-" + id, config.limit());
+    return Mono.just(new Response(acquisition.acquired(), headers(acquisition)));
+  }
+
+  private static Map<String, String> headers(Acquisition acquisition) {
+    var headers = new HashMap<String, String>();
+    headers.put(REMAINING_HEADER, String.valueOf(acquisition.remaining()));
+    if (!acquisition.acquired()) {
+      headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(acquisition.retryAfterSeconds()));
+    }
+    return headers;
+  }
+
+  @Getter
+  @Setter
+  @Validated
+  public static class Config {
+
+    @Min(1)
+    private int permits = 1;
+
+    @NotNull private Duration period = Duration.ofSeconds(1);
+
+    Limit limit() {
+      return Limit.of(permits, period);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.example.gateway;
+
+import com.example.spring.core.exceptions.ApplicationException;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class GatewayContextFilterTest {
+
+  private static final Map<String, Object> CACHE_BODY =
+      Map.of(GatewayContextFilter.CACHE_BODY_METADATA, "true");
+  private static final String SIGNATURE_ROUTE = "get-device";
+
+  private final GatewayContextFilter filter =
+      new GatewayContextFilter(settings(), routeConfiguration());
+  private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+  private final GatewayFilterChain chain =
+      exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+      };
+
+  @Test
+  @DisplayName("test filter with cached route expect body readable here and downstream")
+  void testFilterWithCachedRouteExpectBodyReadableHereAndDownstream() {
+    var exchange = exchange(MockServerHttpRequest.post("/api/v1/devices").body("{\"a\":1}"));
+
+    filter.filter(exchange, chain).block();
+
+    Assertions.assertEquals("{\"a\":1}", context(exchange).getCacheBody());
+    Assertions.assertEquals("{\"a\":1}", body(forwarded.get()));
+  }
+
+  @Test
+  @DisplayName("test filter with netty buffers expect body read twice and released once done")
+  void testFilterWithNettyBuffersExpectBodyReadTwiceAndReleasedOnceDone() {
+    var bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    var first = Unpooled.copiedBuffer("{\"a\":", StandardCharsets.UTF_8);
+    var second = Unpooled.copiedBuffer("1}", StandardCharsets.UTF_8);
+    var exchange =
+        exchange(
+            MockServerHttpRequest.post("/api/v1/devices")
+                .body(Flux.just(bufferFactory.wrap(first), bufferFactory.wrap(second))));
+    var reads = new ArrayList<String>();
+    GatewayFilterChain reading =
+        forwardedExchange -> {
+          reads.add(context(forwardedExchange).getCacheBody());
+          reads.add(body(forwardedExchange));
+          // a second read, such as a retry, sees the whole body again
+          reads.add(body(forwardedExchange));
+          Assertions.assertEquals(1, first.refCnt());
+          return Mono.empty();
+        };
+
+    filter.filter(exchange, reading).block();
+
+    Assertions.assertEquals(List.of("{\"a\":1}", "{\"a\":1}", "{\"a\":1}"), reads);
+    Assertions.assertEquals(0, first.refCnt());
+    Assertions.assertEquals(0, second.refCnt());
+  }
+
+  @Test
+  @DisplayName("test filter with signature route expect body cached without metadata")
+  void testFilterWithSignatureRouteExpectBodyCachedWithoutMetadata() {
+    var exchange =
+        MockServerWebExchange.from(MockServerHttpRequest.put("/api/v1/devices").body("b"));
+    exchange
+        .getAttributes()
+        .put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route(SIGNATURE_ROUTE, Map.of()));
+
+    filter.filter(exchange, chain).block();
+
+    Assertions.assertNotSame(exchange, forwarded.get());
+    Assertions.assertEquals("b", context(exchange).getCacheBody());
+  }
+
+  @Test
+  @DisplayName("test filter with empty body expect empty body downstream")
+  void testFilterWithEmptyBodyExpectEmptyBodyDownstream() {
+    var exchange = exchange(MockServerHttpRequest.put("/api/v1/devices"));
+
+    filter.filter(exchange, chain).block();
+
+    Assertions.assertEquals("", context(exchange).getCacheBody());
+    Assertions.assertEquals("", body(forwarded.get()));
+  }
+
+  @Test
+  @DisplayName("test filter with body over the cap expect payload too large")
+  void testFilterWithBodyOverTheCapExpectPayloadTooLarge() {
+    var exchange = exchange(MockServerHttpRequest.post("/api/v1/devices").body("x".repeat(65)));
+
+    var error =
+        Assertions.assertThrows(
+            ApplicationException.class, () -> filter.filter(exchange, chain).block());
+    Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, error.getStatus());
+  }
+
+  @Test
+  @DisplayName("test filter with form expect raw bytes downstream and fields on demand")
+  void testFilterWithFormExpectRawBytesDownstreamAndFieldsOnDemand() {
+    var exchange =
+        exchange(
+            MockServerHttpRequest.post("/api/v1/devices")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body("grant_type=password&scope=a+b&scope=c%26d"));
+
+    filter.filter(exchange, chain).block();
+
+    Assertions.assertEquals("grant_type=password&scope=a+b&scope=c%26d", body(forwarded.get()));
+    var formData = context(exchange).getFormData();
+    Assertions.assertEquals("password", formData.getFirst("grant_type"));
+    Assertions.assertEquals(List.of("a b", "c&d"), formData.get("scope"));
+    Assertions.assertNull(context(exchange).getCacheBody());
+  }
+
+  @Test
+  @DisplayName("test filter with route without metadata expect request untouched")
+  void testFilterWithRouteWithoutMetadataExpectRequestUntouched() {
+    var request = MockServerHttpRequest.post("/api/v1/token").body("b");
+    var exchange = MockServerWebExchange.from(request);
+    exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route(Map.of()));
+
+    filter.filter(exchange, chain).block();
+
+    Assertions.assertSame(exchange, forwarded.get());
+    Assertions.assertNull(context(exchange).getCacheBody());
+  }
+
+  private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+    return exchange(request.build());
+  }
+
+  private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+    var exchange = MockServerWebExchange.from(request);
+    exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route(CACHE_BODY));
+    return exchange;
+  }
+
+  private static Route route(Map<String, Object> metadata) {
+    return route("route", metadata);
+  }
+
+  private static Route route(String id, Map<String, Object> metadata) {
+    return Route.async()
+        .id(id)
+        .uri("http://localhost")
+        .predicate(exchange -> true)
+        .metadata(metadata)
+        .build();
+  }
+
+  private static GatewayContext context(ServerWebExchange exchange) {
+    return exchange.getAttribute(GatewayContext.CACHE_GATEWAY_CONTEXT);
+  }
+
+  private static String body(ServerWebExchange exchange) {
+    return DataBufferUtils.join(exchange.getRequest().getBody())
+        .map(
+            buffer -> {
+              var body = buffer.toString(StandardCharsets.UTF_8);
+              DataBufferUtils.release(buffer);
+              return body;
+            })
+        .defaultIfEmpty("")
+        .block();
+  }
+
+  private static RouteConfiguration routeConfiguration() {
+    var route = new RouteDefinition();
+    route.setId(SIGNATURE_ROUTE);
+    route.setUri(URI.create("lb://auth"));
+    route.setPredicates(List.of(new PredicateDefinition("Path=/api/v1/devices")));
+    route.setFilters(List.of(new FilterDefinition("AddAuthHeaderGatewayFilter")));
+    var properties = new GatewayProperties();
+    properties.setRoutes(List.of(route));
+    var routeConfiguration = new RouteConfiguration(properties);
+    routeConfiguration.postConstruct();
+    return routeConfiguration;
+  }
+
+  private static BodyCacheSettings settings() {
+    var settings = new BodyCacheSettings();
+    settings.setMaxSize(DataSize.ofBytes(64));
+    return settings;
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.gateway;
+
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class SlidingWindowRateLimiterTest {
+
+  private static final String ROUTE = "unauthenticated-auth";
+
+  private final SlidingWindowRateLimiter rateLimiter = rateLimiter();
+  private final AtomicInteger forwarded = new AtomicInteger();
+  private final GatewayFilterChain chain =
+      exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+      };
+
+  @Test
+  @DisplayName("test isAllowed given more requests than permits should deny with retry after")
+  void testIsAllowedGivenMoreRequestsThanPermitsShouldDenyWithRetryAfter() {
+    var allowed = rateLimiter.isAllowed(ROUTE, "192.0.2.10").block();
+    Assertions.assertTrue(allowed.isAllowed());
+    Assertions.assertEquals(
+        "0", allowed.getHeaders().get(SlidingWindowRateLimiter.REMAINING_HEADER));
+
+    var denied = rateLimiter.isAllowed(ROUTE, "192.0.2.10").block();
+    Assertions.assertFalse(denied.isAllowed());
+    Assertions.assertEquals("60", denied.getHeaders().get(HttpHeaders.RETRY_AFTER));
+
+    Assertions.assertTrue(rateLimiter.isAllowed(ROUTE, "192.0.2.11").block().isAllowed());
+  }
+
+  @Test
+  @DisplayName("test isAllowed given route without config should fail")
+  void testIsAllowedGivenRouteWithoutConfigShouldFail() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> rateLimiter.isAllowed("other", "a").block());
+  }
+
+  @Test
+  @DisplayName("test request rate limiter filter should reject the client address with 429")
+  void testRequestRateLimiterFilterShouldRejectTheClientAddressWith429() {
+    var filter =
+        new RequestRateLimiterGatewayFilterFactory(
+                rateLimiter, new RateLimiterConfiguration().remoteAddressKeyResolver())
+            .apply(new RequestRateLimiterGatewayFilterFactory.Config());
+
+    var allowed = exchange("192.0.2.10");
+    filter.filter(allowed, chain).block();
+    var denied = exchange("192.0.2.10");
+    filter.filter(denied, chain).block();
+    filter.filter(exchange("192.0.2.11"), chain).block();
+
+    Assertions.assertEquals(2, forwarded.get());
+    Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, denied.getResponse().getStatusCode());
+    Assertions.assertEquals(
+        "60", denied.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+  }
+
+  private static MockServerWebExchange exchange(String clientAddress) {
+    var exchange =
+        MockServerWebExchange.from(
+            MockServerHttpRequest.post("/api/v1/token")
+                .remoteAddress(new InetSocketAddress(clientAddress, 40000)));
+    exchange
+        .getAttributes()
+        .put(
+            ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+            Route.async()
+                .id(ROUTE)
+                .uri("lb://auth")
+                .predicate(serverWebExchange -> true)
+                .metadata(Map.of())
+                .build());
+    return exchange;
+  }
+
+  private static SlidingWindowRateLimiter rateLimiter() {
+    var clock = Clock.fixed(Instant.parse("2022-10-01T00:00:00Z"), ZoneOffset.UTC);
+    var rateLimiter = new SlidingWindowRateLimiter(null, clock);
+    var config = new SlidingWindowRateLimiter.Config();
+    config.setPermits(1);
+    config.setPeriod(Duration.ofMinutes(1));
+    rateLimiter.getConfig().put(ROUTE, config);
+    return rateLimiter;
+  }
+}
@@ -3,6 +3,7 @@ plugins {
     id("io.spring.dependency-management") version "1.0.14.RELEASE"
     id("com.diffplug.spotless") version "6.11.0"
     id("io.freefair.lombok") version "6.4.3"
+    id("me.champeau.jmh") version "0.6.8"
     id("java")
 }
 
@@ -40,6 +41,7 @@ dependencies {
     implementation(platform("software.amazon.awssdk:bom:2.18.8"))
     implementation("software.amazon.awssdk:ses")
     implementation("software.amazon.awssdk:sns")
+    implementation("software.amazon.awssdk:netty-nio-client")
     implementation("software.amazon.awssdk:ssm")
     implementation("software.amazon.awssdk:sts")
 
@@ -47,6 +49,7 @@ dependencies {
     implementation(project(":spring-metrics"))
     implementation(project(":spring-web"))
     implementation(project(":spring-axon-reactor"))
+    implementation(project(":rate-limiter"))
 
     implementation(project(":api-messaging"))
 
@@ -58,6 +61,15 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-starter-test")
 }
 
+// benchmarks run on the real mail templates of the auth service
+sourceSets.named("jmh") {
+    resources.srcDir("../auth/src/main/resources/mail/template")
+}
+
+jmh {
+    jmhVersion.set("1.35")
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
@@ -0,0 +1,68 @@
+package com.example.messaging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link MessageService#getEmail} on the auth mail templates with the full Jsoup parse
+ * it ran for every email before {@link HtmlPreScan}. Run with {@code ./gradlew :messaging:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageServiceBenchmark {
+
+  private static final String FROM = "no-reply@example.com";
+  private static final List<String> TO = List.of("github4sanjay@gmail.com");
+
+  @Param({
+    "web-app/email-factor-challenge.html",
+    "web-app/new-device-detected.html",
+    "web-app/trusted-device-added.html"
+  })
+  public String template;
+
+  @Param({"true", "false"})
+  public boolean withSubject;
+
+  private String body;
+  private MessageService messageService;
+
+  @Setup
+  public void setup() throws IOException {
+    try (var in = getClass().getResourceAsStream("/" + template)) {
+      body = new String(Objects.requireNonNull(in).readAllBytes(), StandardCharsets.UTF_8);
+    }
+    messageService = new MessageService(new InlineImages());
+  }
+
+  @Benchmark
+  public Object jsoup() {
+    var document = Jsoup.parse(body);
+    var title = document.getElementsByTag("title").first();
+    return document.getElementsByTag("img").size() + Objects.requireNonNull(title).text();
+  }
+
+  @Benchmark
+  public Object preScan() {
+    return messageService.getEmail("id", body, FROM, TO, withSubject ? "Subject" : null);
+  }
+}
@@ -5,8 +5,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.services.ses.SesClient;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.ses.SesAsyncClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 
 @Configuration
 public class AwsConfiguration {
@@ -15,19 +17,25 @@ public class AwsConfiguration {
 
   @Bean
   @ConditionalOnMissingBean
-  public SesClient sesClient() {
+  public SesAsyncClient sesClient(DispatchSettings settings) {
+    var builder = SesAsyncClient.builder().httpClient(httpClient(settings));
     if (endpoint != null) {
-      return SesClient.builder().endpointOverride(endpoint).build();
+      builder.endpointOverride(endpoint);
     }
-    return SesClient.builder().build();
+    return builder.build();
   }
 
   @Bean
   @ConditionalOnMissingBean
-  public SnsClient snsClient() {
+  public SnsAsyncClient snsClient(DispatchSettings settings) {
+    var builder = SnsAsyncClient.builder().httpClient(httpClient(settings));
     if (endpoint != null) {
-      return SnsClient.builder().endpointOverride(endpoint).build();
+      builder.endpointOverride(endpoint);
     }
-    return SnsClient.create();
+    return builder.build();
+  }
+
+  private static SdkAsyncHttpClient httpClient(DispatchSettings settings) {
+    return NettyNioAsyncHttpClient.builder().maxConcurrency(settings.getMaxConnections()).build();
   }
 }
@@ -0,0 +1,78 @@
+package com.example.messaging;
+
+import com.example.api.messaging.Priority;
+import com.example.ratelimit.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends bulk messages from a single-threaded processor, see {@link EventProcessingConfiguration}.
+ * Each message takes a permit of {@code app.dispatch.bulk-throttle}, shared by all replicas, once
+ * it is claimed in the {@link IdempotencyLedger}, so a message that is already sent or being sent
+ * elsewhere spends none. The bulk lane waits while no permit is left, and the processor with it
+ * once the lane is full, so a campaign goes out at a steady rate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ProcessingGroup(BulkMessagingEventHandler.PROCESSING_GROUP)
+public class BulkMessagingEventHandler {
+
+  public static final String PROCESSING_GROUP = "messaging_bulk";
+  private static final String THROTTLE_KEY = "messaging-bulk-throttle";
+
+  private final SmsService smsService;
+  private final EmailService emailService;
+  private final MessageService messageService;
+  private final OutboxService outboxService;
+  private final MessageDispatcher messageDispatcher;
+  private final RateLimiter rateLimiter;
+  private final DispatchSettings dispatchSettings;
+
+  @Value("${app.mode:production}")
+  private String mode;
+
+  @EventHandler
+  public void on(MessagingEvent.LowPriorityEmailSentEvent event) {
+    var email =
+        messageService.getEmail(
+            event.getId(), event.getBody(), event.getFrom(), event.getTo(), event.getSubject());
+    if (mode.equals("outbox")) {
+      outboxService.addEmail(email);
+    } else {
+      PendingSends.await(
+          messageDispatcher.dispatch(
+              Priority.BULK, () -> emailService.sendEmail(email, this::throttle)));
+    }
+  }
+
+  @EventHandler
+  public void on(MessagingEvent.LowPrioritySmsSentEvent event) {
+    var sms = messageService.getSms(event.getId(), event.getPhoneNumber(), event.getMessage());
+    if (mode.equals("outbox")) {
+      outboxService.addSms(sms);
+    } else {
+      PendingSends.await(
+          messageDispatcher.dispatch(Priority.BULK, () -> smsService.sendSms(sms, this::throttle)));
+    }
+  }
+
+  private void throttle() {
+    var limit = dispatchSettings.getBulkThrottle().limit();
+    var acquisition = rateLimiter.tryAcquire(THROTTLE_KEY, limit);
+    while (!acquisition.acquired()) {
+      log.debug("bulk throttle reached, waiting {}", acquisition.retryAfter());
+      try {
+        Thread.sleep(Math.max(acquisition.retryAfter().toMillis(), 1));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted while waiting for the bulk throttle", e);
+      }
+      acquisition = rateLimiter.tryAcquire(THROTTLE_KEY, limit);
+    }
+  }
+}
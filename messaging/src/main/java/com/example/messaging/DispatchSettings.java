@@ -0,0 +1,64 @@
+package com.example.messaging;
+
+import com.example.api.messaging.Priority;
+import com.example.ratelimit.Limit;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.dispatch")
+public class DispatchSettings {
+
+  private Lane high = new Lane(4, 100, 64);
+  private Lane bulk = new Lane(2, 1_000, 16);
+
+  /** Concurrent connections each AWS client may open, shared by the lanes that use it. */
+  private Integer maxConnections = 100;
+
+  /** Bulk messages all replicas together may start per period. */
+  private Throttle bulkThrottle = new Throttle(10, Duration.ofSeconds(1));
+
+  /** Events the bulk processor handles per transaction. */
+  private Integer bulkBatchSize = 10;
+
+  public Lane lane(Priority priority) {
+    return priority == Priority.BULK ? bulk : high;
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Lane {
+
+    /** Threads that prepare messages and start their sends. */
+    private Integer workers;
+
+    /** Messages waiting for a worker before the event processor is made to wait. */
+    private Integer queueCapacity;
+
+    /** Sends of this lane awaiting a provider response at any time. */
+    private Integer maxInFlight;
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Throttle {
+
+    private Integer permits;
+    private Duration period;
+
+    public Limit limit() {
+      return Limit.of(permits, period);
+    }
+  }
+}
@@ -66,14 +66,16 @@ public class EmailMessage implements Comparable<EmailMessage> {
     private String cid;
     private String contentType;
     private byte[] data;
+    private String contentHash;
 
     @Builder
-    public EmbeddedImage(String cid, String contentType, byte[] data) {
+    public EmbeddedImage(String cid, String contentType, byte[] data, String contentHash) {
       Objects.requireNonNull(cid);
       Objects.requireNonNull(contentType);
       this.cid = cid;
       this.contentType = contentType;
       this.data = data;
+      this.contentHash = contentHash;
     }
   }
 }
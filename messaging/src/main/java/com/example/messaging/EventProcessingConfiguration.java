@@ -0,0 +1,30 @@
+package com.example.messaging;
+
+import com.example.spring.axon.reactor.InitialTokens;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@org.springframework.context.annotation.Configuration
+public class EventProcessingConfiguration {
+
+  /**
+   * Bulk messages are throttled anyway, so one thread and one segment is enough; the single segment
+   * also lets the throttle see the whole campaign. The group is newer than the {@code messaging}
+   * one that used to handle bulk events, so it starts where that processor is: past campaigns are
+   * not sent again and bulk messages it had not reached yet are not dropped.
+   */
+  @Autowired
+  public void configureBulkProcessor(
+      EventProcessingConfigurer processingConfigurer, DispatchSettings dispatchSettings) {
+    processingConfigurer.registerTrackingEventProcessor(
+        BulkMessagingEventHandler.PROCESSING_GROUP,
+        Configuration::eventStore,
+        c ->
+            TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                .andBatchSize(dispatchSettings.getBulkBatchSize())
+                .andInitialTrackingToken(
+                    InitialTokens.copyOf(c, MessagingEventHandler.PROCESSING_GROUP)));
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.messaging;
+
+import org.jsoup.parser.Parser;
+
+/**
+ * Finds what {@link MessageService} needs from an html body by scanning the text instead of
+ * building a DOM: whether it may embed {@code data:} images and what its title is. Both answers
+ * are conservative, so a body the scan is not sure about still goes through Jsoup.
+ */
+final class HtmlPreScan {
+
+  private static final String DATA_URL = "data:";
+  private static final String TITLE = "<title";
+  private static final String TITLE_END = "</title";
+
+  private HtmlPreScan() {}
+
+  /** False only when the body has no {@code data:} url at all, so no image needs rewriting. */
+  static boolean mayEmbedDataUrl(String html) {
+    return indexOfIgnoreCase(html, DATA_URL, 0) >= 0;
+  }
+
+  /**
+   * The text of the first {@code <title>}, unescaped and with whitespace collapsed as Jsoup's
+   * {@code text()} does, or {@code null} when there is none or a comment or script before it may
+   * hide the real one.
+   */
+  static String title(String html) {
+    var start = indexOfIgnoreCase(html, TITLE, 0);
+    while (start >= 0 && !endsTagName(html, start + TITLE.length())) {
+      start = indexOfIgnoreCase(html, TITLE, start + TITLE.length());
+    }
+    if (start < 0
+        || indexOfIgnoreCase(html.substring(0, start), "<!--", 0) >= 0
+        || indexOfIgnoreCase(html.substring(0, start), "<script", 0) >= 0) {
+      return null;
+    }
+    var open = html.indexOf('>', start);
+    var end = open < 0 ? -1 : indexOfIgnoreCase(html, TITLE_END, open);
+    if (end < 0) {
+      return null;
+    }
+    return normaliseWhitespace(Parser.unescapeEntities(html.substring(open + 1, end), false));
+  }
+
+  private static boolean endsTagName(String html, int index) {
+    if (index >= html.length()) {
+      return false;
+    }
+    var c = html.charAt(index);
+    return c == '>' || c == '/' || isWhitespace(c);
+  }
+
+  /** {@code needle} must be lower case. */
+  private static int indexOfIgnoreCase(String html, String needle, int from) {
+    var first = needle.charAt(0);
+    var firstUpper = Character.toUpperCase(first);
+    for (int i = from, last = html.length() - needle.length(); i <= last; i++) {
+      var c = html.charAt(i);
+      if ((c == first || c == firstUpper)
+          && html.regionMatches(true, i, needle, 0, needle.length())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static String normaliseWhitespace(String text) {
+    var normalised = new StringBuilder(text.length());
+    var lastWasWhitespace = false;
+    for (int i = 0; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (isWhitespace(c)) {
+        if (!lastWasWhitespace) {
+          normalised.append(' ');
+        }
+        lastWasWhitespace = true;
+      } else {
+        normalised.append(c);
+        lastWasWhitespace = false;
+      }
+    }
+    return normalised.toString().trim();
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == '\u00a0';
+  }
+}
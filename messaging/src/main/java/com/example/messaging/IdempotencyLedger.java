@@ -0,0 +1,86 @@
+package com.example.messaging;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes sure a message is handed to the provider once, even when its event is redelivered or two
+ * segments handle it at the same time.
+ *
+ * <p>Each message has one small string key. A send first claims it with {@code SET NX PX}, so only
+ * one of two concurrent attempts goes on; the claim is a lease that lapses if its holder dies
+ * mid-send. An attempt that finds someone else's claim fails instead of skipping, so its event is
+ * retried and still sends the message if the holder never finishes. Once the provider accepts the
+ * message the key is overwritten with a one byte marker kept for {@link #RETENTION}; if the send
+ * fails the claim is dropped so the retry can take it. Nothing of the message itself is stored.
+ */
+@Slf4j
+@Component
+public class IdempotencyLedger {
+
+  public static final Duration RETENTION = Duration.ofDays(5);
+
+  static final String SENT = "1";
+  private static final String CLAIM_PREFIX = "c:";
+
+  private final RedissonClient redisson;
+  private final long leaseMillis;
+
+  public IdempotencyLedger(
+      RedissonClient redisson, @Value("${app.idempotency.lease-seconds:120}") long leaseSeconds) {
+    this.redisson = redisson;
+    this.leaseMillis = TimeUnit.SECONDS.toMillis(leaseSeconds);
+  }
+
+  /**
+   * Runs {@code send} unless the message was already sent. The returned future completes once the
+   * send succeeded and was recorded, or straight away when it was skipped, and fails when another
+   * attempt holds the claim.
+   */
+  public CompletableFuture<Void> sendOnce(
+      String channel, String spanId, Supplier<? extends CompletableFuture<?>> send) {
+    RBucket<String> bucket = redisson.getBucket(key(channel, spanId), StringCodec.INSTANCE);
+    var claim = CLAIM_PREFIX + UUID.randomUUID();
+    if (!bucket.trySet(claim, leaseMillis, TimeUnit.MILLISECONDS)) {
+      if (SENT.equals(bucket.get())) {
+        log.debug("skipping {} {}, it is already sent", channel, spanId);
+        return CompletableFuture.completedFuture(null);
+      }
+      // the holder may have died mid-send; fail so the event is retried once its lease lapses
+      return CompletableFuture.failedFuture(
+          new IllegalStateException(channel + " " + spanId + " is being sent by another attempt"));
+    }
+    CompletableFuture<?> sending;
+    try {
+      sending = send.get();
+    } catch (RuntimeException e) {
+      bucket.compareAndSet(claim, null);
+      throw e;
+    }
+    return sending
+        .handle((response, error) -> error)
+        .thenCompose(
+            error -> {
+              if (error == null) {
+                return bucket.setAsync(SENT, RETENTION.toDays(), TimeUnit.DAYS);
+              }
+              // only drop our own claim, the lease may have passed to another attempt
+              return bucket
+                  .compareAndSetAsync(claim, null)
+                  .thenCompose(released -> CompletableFuture.<Void>failedFuture(error));
+            });
+  }
+
+  static String key(String channel, String spanId) {
+    return channel + "-" + spanId;
+  }
+}
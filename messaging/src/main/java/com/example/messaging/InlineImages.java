@@ -0,0 +1,74 @@
+package com.example.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decodes and encodes the inline images of emails once per distinct image. Campaign emails share
+ * the same logos and banners, so each image is kept here by the SHA-256 of its content, with both
+ * its bytes and its base64 body part, and the next email that embeds it reuses them.
+ */
+@Component
+public class InlineImages {
+
+  private static final long MAXIMUM_WEIGHT = 32L * 1024 * 1024;
+  private static final String DATA_URL_HASH = "b64:";
+  private static final String BYTES_HASH = "raw:";
+
+  private final Cache<String, Image> images =
+      Caffeine.newBuilder()
+          .maximumWeight(MAXIMUM_WEIGHT)
+          .weigher((String hash, Image image) -> image.weight())
+          .build();
+
+  /** The image of a {@code data:} url, decoding its base64 payload the first time it is seen. */
+  public EmailMessage.EmbeddedImage fromDataUrl(String cid, String contentType, String base64) {
+    var hash = DATA_URL_HASH + sha256(base64.getBytes(StandardCharsets.US_ASCII));
+    var image = images.get(hash, key -> Image.of(Base64.getMimeDecoder().decode(base64)));
+    return EmailMessage.EmbeddedImage.builder()
+        .cid(cid)
+        .contentType(contentType)
+        .data(image.data())
+        .contentHash(hash)
+        .build();
+  }
+
+  /** The base64 body of {@code image}, in CRLF separated lines of 76 characters. Do not modify. */
+  byte[] encoded(EmailMessage.EmbeddedImage image) {
+    var hash = image.getContentHash();
+    if (hash == null) {
+      // messages queued before images carried their hash
+      hash = BYTES_HASH + sha256(image.getData());
+    }
+    return images.get(hash, key -> Image.of(image.getData())).encoded();
+  }
+
+  long size() {
+    return images.estimatedSize();
+  }
+
+  private static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record Image(byte[] data, byte[] encoded) {
+
+    static Image of(byte[] data) {
+      return new Image(data, Base64.getMimeEncoder().encode(data));
+    }
+
+    int weight() {
+      return data.length + encoded.length;
+    }
+  }
+}
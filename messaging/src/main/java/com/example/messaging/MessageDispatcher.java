@@ -0,0 +1,123 @@
+package com.example.messaging;
+
+import com.example.api.messaging.Priority;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs sends on a separate lane per {@link Priority}, so a bulk campaign cannot take the workers or
+ * the provider concurrency that OTP messages need. Each lane has a fixed pool of workers behind a
+ * bounded queue, and a limit on sends awaiting the provider. When the queue is full, the calling
+ * event processor thread waits for room instead of buffering without bound.
+ */
+@Slf4j
+@Component
+public class MessageDispatcher {
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final Map<Priority, Lane> lanes = new EnumMap<>(Priority.class);
+
+  public MessageDispatcher(DispatchSettings settings) {
+    for (var priority : Priority.values()) {
+      lanes.put(priority, new Lane(priority, settings.lane(priority)));
+    }
+  }
+
+  /**
+   * Starts {@code send} on a worker of the {@code priority} lane. The returned future completes
+   * with the future returned by {@code send}.
+   */
+  public CompletableFuture<Void> dispatch(
+      Priority priority, Supplier<? extends CompletableFuture<?>> send) {
+    return lanes.get(priority).dispatch(send);
+  }
+
+  @PreDestroy
+  public void preDestroy() throws InterruptedException {
+    for (var lane : lanes.values()) {
+      lane.workers.shutdown();
+    }
+    for (var lane : lanes.values()) {
+      if (!lane.workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        log.warn("{} dispatch lane did not drain in time", lane.priority);
+      }
+    }
+  }
+
+  private static final class Lane {
+
+    private final Priority priority;
+    private final ThreadPoolExecutor workers;
+    private final Semaphore inFlight;
+
+    Lane(Priority priority, DispatchSettings.Lane settings) {
+      this.priority = priority;
+      this.inFlight = new Semaphore(settings.getMaxInFlight());
+      var threadName = "dispatch-" + priority.name().toLowerCase() + "-";
+      var threadCount = new AtomicInteger();
+      this.workers =
+          new ThreadPoolExecutor(
+              settings.getWorkers(),
+              settings.getWorkers(),
+              0,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+              runnable -> {
+                var thread = new Thread(runnable, threadName + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              },
+              Lane::waitForRoom);
+    }
+
+    CompletableFuture<Void> dispatch(Supplier<? extends CompletableFuture<?>> send) {
+      var result = new CompletableFuture<Void>();
+      workers.execute(
+          () -> {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<?> sent;
+            try {
+              sent = send.get();
+            } catch (RuntimeException e) {
+              inFlight.release();
+              result.completeExceptionally(e);
+              return;
+            }
+            sent.whenComplete(
+                (response, throwable) -> {
+                  inFlight.release();
+                  if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                  } else {
+                    result.complete(null);
+                  }
+                });
+          });
+      return result;
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor executor) {
+      if (executor.isShutdown()) {
+        throw new RejectedExecutionException("dispatch lane is shut down");
+      }
+      try {
+        executor.getQueue().put(task);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RejectedExecutionException("interrupted while waiting for the dispatch lane", e);
+      }
+    }
+  }
+}
@@ -2,22 +2,33 @@ package com.example.messaging;
 
 import com.example.api.messaging.PhoneNumber;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 public class MessageService {
 
   private static final Pattern DATA = Pattern.compile("(?s)^data:(.*);base64,(.*)$");
 
+  private final InlineImages images;
+
   public EmailMessage getEmail(
       String id, String body, String from, List<String> to, String subject) {
 
+    // Without data: urls nothing is rewritten, so a DOM is only needed to find a missing subject
+    if (!HtmlPreScan.mayEmbedDataUrl(body)) {
+      var title = subject != null ? subject : HtmlPreScan.title(body);
+      if (title != null) {
+        return email(id, body, from, to, title, List.of());
+      }
+    }
+
     var document = Jsoup.parse(body);
 
     // Use the <title> as the mail subject if no subject is specified
@@ -37,15 +48,24 @@ public class MessageService {
       if (!dataUrl.matches()) continue;
       var name = "image" + inlineImages.size() + 1;
       element.attr("src", "cid:" + name);
-      var image =
-          EmailMessage.EmbeddedImage.builder()
-              .cid(name)
-              .data(Base64.getMimeDecoder().decode(dataUrl.group(2)))
-              .contentType(dataUrl.group(1))
-              .build();
-      inlineImages.add(image);
+      inlineImages.add(images.fromDataUrl(name, dataUrl.group(1), dataUrl.group(2)));
     }
     body = inlineImages.size() == 0 ? body : document.outerHtml();
+    return email(id, body, from, to, subject, inlineImages);
+  }
+
+  public SmsMessage getSms(String id, PhoneNumber phoneNumber, String message) {
+    var sms = SmsMessage.Sms.builder().message(message).phoneNumber(phoneNumber).build();
+    return SmsMessage.builder().spanId(id).sms(sms).build();
+  }
+
+  private static EmailMessage email(
+      String id,
+      String body,
+      String from,
+      List<String> to,
+      String subject,
+      List<EmailMessage.EmbeddedImage> inlineImages) {
     var email =
         EmailMessage.Email.builder()
             .body(body)
@@ -56,9 +76,4 @@ public class MessageService {
             .build();
     return EmailMessage.builder().email(email).spanId(id).build();
   }
-
-  public SmsMessage getSms(String id, PhoneNumber phoneNumber, String message) {
-    var sms = SmsMessage.Sms.builder().message(message).phoneNumber(phoneNumber).build();
-    return SmsMessage.builder().spanId(id).sms(sms).build();
-  }
 }
@@ -1,5 +1,6 @@
 package com.example.messaging;
 
+import com.example.api.messaging.Priority;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.config.ProcessingGroup;
@@ -7,16 +8,24 @@ import org.axonframework.eventhandling.EventHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Sends high priority messages, such as OTPs, from a pooled processor whose segments are spread
+ * over the messaging replicas. Bulk messages have their own processor in {@link
+ * BulkMessagingEventHandler}, so a campaign backlog never delays these.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-@ProcessingGroup("messaging")
+@ProcessingGroup(MessagingEventHandler.PROCESSING_GROUP)
 public class MessagingEventHandler {
 
+  public static final String PROCESSING_GROUP = "messaging";
+
   private final SmsService smsService;
   private final EmailService emailService;
   private final MessageService messageService;
   private final OutboxService outboxService;
+  private final MessageDispatcher messageDispatcher;
 
   @Value("${app.mode:production}")
   private String mode;
@@ -29,19 +38,8 @@ public class MessagingEventHandler {
     if (mode.equals("outbox")) {
       outboxService.addEmail(email);
     } else {
-      emailService.sendEmail(email);
-    }
-  }
-
-  @EventHandler
-  public void on(MessagingEvent.LowPriorityEmailSentEvent event) {
-    var email =
-        messageService.getEmail(
-            event.getId(), event.getBody(), event.getFrom(), event.getTo(), event.getSubject());
-    if (mode.equals("outbox")) {
-      outboxService.addEmail(email);
-    } else {
-      emailService.sendEmail(email);
+      PendingSends.await(
+          messageDispatcher.dispatch(Priority.HIGH, () -> emailService.sendEmail(email)));
     }
   }
 
@@ -51,17 +49,7 @@ public class MessagingEventHandler {
     if (mode.equals("outbox")) {
       outboxService.addSms(sms);
     } else {
-      smsService.sendSms(sms);
-    }
-  }
-
-  @EventHandler
-  public void on(MessagingEvent.LowPrioritySmsSentEvent event) {
-    var sms = messageService.getSms(event.getId(), event.getPhoneNumber(), event.getMessage());
-    if (mode.equals("outbox")) {
-      outboxService.addSms(sms);
-    } else {
-      smsService.sendSms(sms);
+      PendingSends.await(messageDispatcher.dispatch(Priority.HIGH, () -> smsService.sendSms(sms)));
     }
   }
 }
@@ -5,6 +5,8 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping
@@ -14,9 +16,32 @@ public class OutboxController {
   private final OutboxService outboxService;
 
   @GetMapping("/outbox")
-  public String outbox(Model model) {
-    model.addAttribute("smsList", outboxService.getAllSms());
-    model.addAttribute("emails", outboxService.getAllEmails());
+  public String outbox(
+      @RequestParam(required = false) String emailCursor,
+      @RequestParam(required = false) String smsCursor,
+      @RequestParam(defaultValue = "" + OutboxService.DEFAULT_PAGE_SIZE) int size,
+      Model model) {
+    model.addAttribute("smsList", outboxService.getSmsPage(smsCursor, size));
+    model.addAttribute("emails", outboxService.getEmailPage(emailCursor, size));
+    model.addAttribute("emailCursor", emailCursor);
+    model.addAttribute("smsCursor", smsCursor);
+    model.addAttribute("size", size);
     return "outbox";
   }
+
+  @ResponseBody
+  @GetMapping("/outbox/emails")
+  public OutboxPage<EmailMessage> emails(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + OutboxService.DEFAULT_PAGE_SIZE) int size) {
+    return outboxService.getEmailPage(cursor, size);
+  }
+
+  @ResponseBody
+  @GetMapping("/outbox/sms")
+  public OutboxPage<SmsMessage> sms(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + OutboxService.DEFAULT_PAGE_SIZE) int size) {
+    return outboxService.getSmsPage(cursor, size);
+  }
 }
@@ -0,0 +1,14 @@
+package com.example.messaging;
+
+import java.util.List;
+import lombok.Value;
+
+/**
+ * One page of the outbox, newest first. {@code next} is the cursor of the following page, or
+ * {@code null} on the last one.
+ */
+@Value
+public class OutboxPage<T> {
+  List<T> items;
+  String next;
+}
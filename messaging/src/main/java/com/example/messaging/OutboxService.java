@@ -1,48 +1,152 @@
 package com.example.messaging;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import com.example.spring.core.exceptions.CoreExceptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import org.redisson.api.RMapCache;
+import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ScoredEntry;
 import org.springframework.stereotype.Service;
 
+/**
+ * Keeps the messages of the outbox mode for a day. Each message is its own key, and each channel
+ * has a sorted set of span ids scored by the epoch millis the message was created at, so a page is
+ * a range read of the set plus one MGET, whatever the size of the outbox.
+ */
 @Service
 @RequiredArgsConstructor
 public class OutboxService {
 
   public static final String EMAIL_MAP = "messaging-outbox-email-message";
   private static final String SMS_MAP = "messaging-outbox-sms-message";
+  private static final Duration RETENTION = Duration.ofDays(1);
+
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAXIMUM_PAGE_SIZE = 200;
 
   private final RedissonClient redisson;
 
   public void addSms(SmsMessage message) {
-    RMapCache<String, SmsMessage> map = redisson.getMapCache(SMS_MAP);
-    map.put(message.getSpanId(), message, 1, TimeUnit.DAYS);
+    add(SMS_MAP, message.getSpanId(), message.getSentAt(), message);
   }
 
   public void addEmail(EmailMessage message) {
-    RMapCache<String, EmailMessage> map = redisson.getMapCache(EMAIL_MAP);
-    map.put(message.getSpanId(), message, 1, TimeUnit.DAYS);
-  }
-
-  public Map<String, SmsMessage> getAllSms() {
-    RMapCache<String, SmsMessage> map = redisson.getMapCache(SMS_MAP);
-    return map.entrySet().stream()
-        .sorted(Map.Entry.comparingByValue())
-        .collect(
-            Collectors.toMap(
-                Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
-  }
-
-  public Map<String, EmailMessage> getAllEmails() {
-    RMapCache<String, EmailMessage> map = redisson.getMapCache(EMAIL_MAP);
-    return map.entrySet().stream()
-        .sorted(Map.Entry.comparingByValue())
-        .collect(
-            Collectors.toMap(
-                Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+    add(EMAIL_MAP, message.getSpanId(), message.getSentAt(), message);
+  }
+
+  public SmsMessage getSms(String spanId) {
+    return redisson.<SmsMessage>getBucket(key(SMS_MAP, spanId)).get();
+  }
+
+  public EmailMessage getEmail(String spanId) {
+    return redisson.<EmailMessage>getBucket(key(EMAIL_MAP, spanId)).get();
+  }
+
+  /** The sms sent before {@code cursor}, or the latest ones when it is {@code null}. */
+  public OutboxPage<SmsMessage> getSmsPage(String cursor, int size) {
+    return page(SMS_MAP, cursor, size);
+  }
+
+  /** The emails sent before {@code cursor}, or the latest ones when it is {@code null}. */
+  public OutboxPage<EmailMessage> getEmailPage(String cursor, int size) {
+    return page(EMAIL_MAP, cursor, size);
+  }
+
+  private void add(String channel, String spanId, String sentAt, Object message) {
+    var now = Instant.now();
+    var batch = redisson.createBatch();
+    batch
+        .getBucket(key(channel, spanId))
+        .setAsync(message, RETENTION.toMillis(), TimeUnit.MILLISECONDS);
+    var index = batch.<String>getScoredSortedSet(index(channel), StringCodec.INSTANCE);
+    index.addAsync(Instant.parse(sentAt).toEpochMilli(), spanId);
+    index.removeRangeByScoreAsync(
+        Double.NEGATIVE_INFINITY, true, now.minus(RETENTION).toEpochMilli(), false);
+    index.expireAsync(RETENTION.toMillis(), TimeUnit.MILLISECONDS);
+    batch.execute();
+  }
+
+  private <T> OutboxPage<T> page(String channel, String cursor, int size) {
+    size = Math.min(Math.max(size, 1), MAXIMUM_PAGE_SIZE);
+    var after = cursor == null ? null : Cursor.parse(cursor);
+    RScoredSortedSet<String> index =
+        redisson.getScoredSortedSet(index(channel), StringCodec.INSTANCE);
+    var max = after == null ? Double.POSITIVE_INFINITY : after.sentAt();
+
+    // one entry more than the page tells whether there is a next one; messages created in the
+    // same millisecond as the cursor are read again and skipped, so this rarely loops
+    var entries = new ArrayList<ScoredEntry<String>>(size + 1);
+    var offset = 0;
+    while (entries.size() <= size) {
+      var range =
+          index.entryRangeReversed(Double.NEGATIVE_INFINITY, true, max, true, offset, size + 1);
+      for (var entry : range) {
+        if (entries.size() <= size && (after == null || after.precedes(entry))) {
+          entries.add(entry);
+        }
+      }
+      if (range.size() < size + 1) {
+        break;
+      }
+      offset += range.size();
+    }
+
+    var next = entries.size() > size ? Cursor.of(entries.get(size - 1)).toString() : null;
+    var keys = new ArrayList<String>(size);
+    for (var entry : entries.subList(0, Math.min(size, entries.size()))) {
+      keys.add(key(channel, entry.getValue()));
+    }
+    var messages = redisson.getBuckets().<T>get(keys.toArray(new String[0]));
+    var items = new ArrayList<T>(keys.size());
+    for (var key : keys) {
+      // the message may have expired before the index entry was trimmed
+      var message = messages.get(key);
+      if (message != null) {
+        items.add(message);
+      }
+    }
+    return new OutboxPage<>(List.copyOf(items), next);
+  }
+
+  private static String key(String channel, String spanId) {
+    return channel + "-" + spanId;
+  }
+
+  private static String index(String channel) {
+    return channel + "-index";
+  }
+
+  /** Position of a message in the index, newest first. */
+  private record Cursor(long sentAt, String spanId) {
+
+    static Cursor of(ScoredEntry<String> entry) {
+      return new Cursor(entry.getScore().longValue(), entry.getValue());
+    }
+
+    static Cursor parse(String cursor) {
+      var separator = cursor.indexOf(':');
+      try {
+        return new Cursor(
+            Long.parseLong(cursor.substring(0, separator)), cursor.substring(separator + 1));
+      } catch (RuntimeException e) {
+        throw CoreExceptions.BAD_REQUEST.getEx();
+      }
+    }
+
+    /** Whether {@code entry} comes after this cursor, in the reverse order Redis returns. */
+    boolean precedes(ScoredEntry<String> entry) {
+      var score = entry.getScore().longValue();
+      return score < sentAt || (score == sentAt && entry.getValue().compareTo(spanId) < 0);
+    }
+
+    @Override
+    public String toString() {
+      return sentAt + ":" + spanId;
+    }
   }
 }
@@ -0,0 +1,38 @@
+package com.example.messaging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+/**
+ * Lets event handlers start sends without waiting for them. The sends started while handling one
+ * event batch are awaited together when the batch commits, so a failed send rolls the batch back
+ * and is retried; {@link IdempotencyLedger} keeps the retry from sending the messages that did go
+ * out twice. Outside a unit of work the send is awaited straight away.
+ */
+final class PendingSends {
+
+  private static final String RESOURCE = PendingSends.class.getName();
+
+  private PendingSends() {}
+
+  static void await(CompletableFuture<Void> send) {
+    if (!CurrentUnitOfWork.isStarted()) {
+      send.join();
+      return;
+    }
+    var root = CurrentUnitOfWork.get().root();
+    List<CompletableFuture<Void>> pending =
+        root.getOrComputeResource(
+            RESOURCE,
+            key -> {
+              var futures = new ArrayList<CompletableFuture<Void>>();
+              root.onPrepareCommit(
+                  unitOfWork ->
+                      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join());
+              return futures;
+            });
+    pending.add(send);
+  }
+}
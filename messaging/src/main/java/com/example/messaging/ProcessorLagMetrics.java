@@ -0,0 +1,68 @@
+package com.example.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.OptionalLong;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@code messaging.processor.lag}: how many events the slowest segment of each messaging
+ * processor is behind the head of the event stream on this replica. Segments claimed by other
+ * replicas are reported there. A rising lag while more pods are running means segments are not
+ * being picked up, or that the processor needs more of them.
+ */
+@Component
+public class ProcessorLagMetrics {
+
+  public static final String METRIC_NAME = "messaging.processor.lag";
+  static final List<String> PROCESSING_GROUPS =
+      List.of(MessagingEventHandler.PROCESSING_GROUP, BulkMessagingEventHandler.PROCESSING_GROUP);
+
+  private final org.axonframework.config.EventProcessingConfiguration eventProcessing;
+  private final EventStore eventStore;
+
+  public ProcessorLagMetrics(
+      org.axonframework.config.EventProcessingConfiguration eventProcessing,
+      EventStore eventStore,
+      MeterRegistry meterRegistry) {
+    this.eventProcessing = eventProcessing;
+    this.eventStore = eventStore;
+    for (var processingGroup : PROCESSING_GROUPS) {
+      Gauge.builder(METRIC_NAME, this, metrics -> metrics.lag(processingGroup))
+          .tag("processor", processingGroup)
+          .description("events between the head of the stream and the slowest claimed segment")
+          .register(meterRegistry);
+    }
+  }
+
+  /** The lag of {@code processingGroup}, or {@code NaN} while it claims no segment here. */
+  double lag(String processingGroup) {
+    var processor =
+        eventProcessing.eventProcessor(processingGroup, StreamingEventProcessor.class).orElse(null);
+    if (processor == null) {
+      return Double.NaN;
+    }
+    var head = position(eventStore.createHeadToken());
+    if (head.isEmpty()) {
+      return Double.NaN;
+    }
+    var slowest = OptionalLong.empty();
+    for (EventTrackerStatus status : processor.processingStatus().values()) {
+      var position = status.getCurrentPosition();
+      if (position.isPresent()
+          && (slowest.isEmpty() || position.getAsLong() < slowest.getAsLong())) {
+        slowest = position;
+      }
+    }
+    return slowest.isEmpty() ? Double.NaN : Math.max(head.getAsLong() - slowest.getAsLong(), 0);
+  }
+
+  private static OptionalLong position(TrackingToken token) {
+    return token == null ? OptionalLong.empty() : token.position();
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.messaging;
+
+import com.example.ratelimit.RateLimiter;
+import com.example.ratelimit.RedisRateLimiter;
+import java.time.Clock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Keeps the bulk send throttle in Redis, so it caps all messaging replicas together. */
+@Configuration
+public class RateLimiterConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public RateLimiter rateLimiter(RedissonClient redissonClient) {
+    return new RedisRateLimiter(redissonClient, Clock.systemUTC());
+  }
+}
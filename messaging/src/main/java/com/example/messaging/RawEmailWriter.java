@@ -0,0 +1,107 @@
+package com.example.messaging;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import javax.mail.MessagingException;
+import javax.mail.internet.ContentType;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeUtility;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkBytes;
+
+/**
+ * Writes an email as the raw MIME message SES expects: a multipart/mixed message with the html
+ * body followed by its inline images. Header values are encoded with the javax.mail helpers, but
+ * the parts are laid out here so that image parts come pre-encoded from {@link InlineImages}, and
+ * the message is copied once into an array of its exact size that SES gets without another copy.
+ */
+@Component
+@RequiredArgsConstructor
+public class RawEmailWriter {
+
+  private static final String CRLF = "\r\n";
+
+  private final InlineImages inlineImages;
+
+  public SdkBytes write(EmailMessage.Email email) {
+    var mixed = boundary();
+    var alternative = boundary();
+    var message = new Segments();
+    try {
+      message.add("From: " + new InternetAddress(email.getFrom()) + CRLF);
+      message.add("To: " + InternetAddress.toString(recipients(email.getTo()), 4) + CRLF);
+      message.add(
+          "Subject: "
+              + MimeUtility.fold(9, MimeUtility.encodeText(email.getSubject(), "UTF-8", null))
+              + CRLF);
+      message.add("MIME-Version: 1.0" + CRLF);
+      message.add("Content-Type: multipart/mixed; boundary=\"" + mixed + "\"" + CRLF + CRLF);
+
+      message.add("--" + mixed + CRLF);
+      message.add("Content-Type: multipart/alternative; boundary=\"" + alternative + "\"");
+      message.add(CRLF + CRLF + "--" + alternative + CRLF);
+      message.add("Content-Type: text/html; charset=UTF-8" + CRLF);
+      message.add("Content-Transfer-Encoding: base64" + CRLF + CRLF);
+      message.add(Base64.getMimeEncoder().encode(email.getBody().getBytes(StandardCharsets.UTF_8)));
+      message.add(CRLF + "--" + alternative + "--" + CRLF);
+
+      for (EmailMessage.EmbeddedImage image : email.getImages()) {
+        message.add("--" + mixed + CRLF);
+        message.add("Content-Type: " + new ContentType(image.getContentType()) + CRLF);
+        message.add("Content-Transfer-Encoding: base64" + CRLF);
+        message.add("Content-Disposition: inline; filename=\"" + image.getCid() + "\"" + CRLF);
+        message.add("Content-ID: <" + image.getCid() + ">" + CRLF);
+        message.add("X-Attachment-Id: " + image.getCid() + CRLF + CRLF);
+        message.add(inlineImages.encoded(image));
+        message.add(CRLF);
+      }
+      message.add("--" + mixed + "--" + CRLF);
+    } catch (MessagingException | UnsupportedEncodingException e) {
+      throw new IllegalStateException("Could not create message", e);
+    }
+    return SdkBytes.fromByteArrayUnsafe(message.toByteArray());
+  }
+
+  private static InternetAddress[] recipients(List<String> to) throws MessagingException {
+    var addresses = new InternetAddress[to.size()];
+    for (int i = 0; i < addresses.length; i++) {
+      addresses[i] = new InternetAddress(to.get(i));
+    }
+    return addresses;
+  }
+
+  private static String boundary() {
+    return "----=_Part_" + UUID.randomUUID();
+  }
+
+  /** The pieces of a message in order, joined once their total length is known. */
+  private static final class Segments {
+
+    private final List<byte[]> segments = new ArrayList<>();
+    private int length;
+
+    void add(String ascii) {
+      add(ascii.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    void add(byte[] segment) {
+      segments.add(segment);
+      length += segment.length;
+    }
+
+    byte[] toByteArray() {
+      var joined = new byte[length];
+      var offset = 0;
+      for (byte[] segment : segments) {
+        System.arraycopy(segment, 0, joined, offset, segment.length);
+        offset += segment.length;
+      }
+      return joined;
+    }
+  }
+}
@@ -3,13 +3,11 @@ package com.example.messaging;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RMapCache;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
 
 @Slf4j
@@ -19,24 +17,38 @@ public class SmsService {
 
   public static final String SMS_MAP = "messaging-sms-message";
 
-  private final SnsClient snsClient;
-  private final RedissonClient redisson;
+  private final SnsAsyncClient snsClient;
+  private final IdempotencyLedger idempotencyLedger;
 
-  public void sendSms(SmsMessage smsMessage) {
+  /**
+   * Starts publishing {@code smsMessage} through SNS. The returned future completes once SNS has
+   * accepted it and it is recorded as sent.
+   */
+  public CompletableFuture<Void> sendSms(SmsMessage smsMessage) {
+    return sendSms(smsMessage, () -> {});
+  }
+
+  /**
+   * Like {@link #sendSms(SmsMessage)}, running {@code beforeSend} once the message is claimed and
+   * right before it is handed to SNS.
+   */
+  public CompletableFuture<Void> sendSms(SmsMessage smsMessage, Runnable beforeSend) {
     if (Instant.parse(smsMessage.getSentAt()).isBefore(Instant.now().minus(1, ChronoUnit.DAYS))) {
       log.info("ignoring sms {} because of delayed delivery", smsMessage.getSpanId());
-      return;
+      return CompletableFuture.completedFuture(null);
     }
-    RMapCache<String, SmsMessage> map = redisson.getMapCache(SMS_MAP);
-    if (map.containsKey(smsMessage.getSpanId())) return;
-
-    snsClient.publish(
-        PublishRequest.builder()
-            .messageAttributes(Map.of())
-            .phoneNumber(smsMessage.getSms().getPhoneNumber().withoutPlus())
-            .message(smsMessage.getSms().getMessage())
-            .build());
 
-    map.put(smsMessage.getSpanId(), smsMessage, 5, TimeUnit.DAYS);
+    return idempotencyLedger.sendOnce(
+        SMS_MAP,
+        smsMessage.getSpanId(),
+        () -> {
+          beforeSend.run();
+          return snsClient.publish(
+              PublishRequest.builder()
+                  .messageAttributes(Map.of())
+                  .phoneNumber(smsMessage.getSms().getPhoneNumber().withoutPlus())
+                  .message(smsMessage.getSms().getMessage())
+                  .build());
+        });
   }
 }
@@ -1,11 +1,14 @@
 package com.example.messaging;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,8 +21,9 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.SesAsyncClient;
 import software.amazon.awssdk.services.ses.model.SendRawEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendRawEmailResponse;
 
 @ExtendWith(SpringExtension.class)
 @WebFluxTest(properties = {"app.mode=outbox"})
@@ -28,12 +32,22 @@ import software.amazon.awssdk.services.ses.model.SendRawEmailRequest;
     classes = {
       MockRedis.class,
       AwsConfiguration.class,
+      DispatchSettings.class,
+      IdempotencyLedger.class,
+      InlineImages.class,
+      RawEmailWriter.class,
       EmailService.class,
     })
 class EmailServiceTest {
 
   @Autowired private EmailService emailService;
-  @MockBean private SesClient sesClient;
+  @MockBean private SesAsyncClient sesClient;
+
+  @BeforeEach
+  public void beforeEach() {
+    Mockito.when(sesClient.sendRawEmail(any(SendRawEmailRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(SendRawEmailResponse.builder().build()));
+  }
 
   @Test
   @DisplayName("test send email with duplicate email should be sent only once")
@@ -67,8 +81,8 @@ class EmailServiceTest {
                     .build())
             .spanId(UUID.randomUUID().toString())
             .build();
-    emailService.sendEmail(email);
-    emailService.sendEmail(email);
+    emailService.sendEmail(email).join();
+    emailService.sendEmail(email).join();
 
     var requestArgumentCaptor = ArgumentCaptor.forClass(SendRawEmailRequest.class);
     Mockito.verify(sesClient, times(1)).sendRawEmail(requestArgumentCaptor.capture());
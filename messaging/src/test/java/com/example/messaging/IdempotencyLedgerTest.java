@@ -0,0 +1,131 @@
+package com.example.messaging;
+
+import static com.example.messaging.EmailService.EMAIL_MAP;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.spring.starter.RedissonAutoConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@WebFluxTest
+@ImportAutoConfiguration(value = {RedissonAutoConfiguration.class})
+@ContextConfiguration(classes = {MockRedis.class, IdempotencyLedger.class})
+class IdempotencyLedgerTest {
+
+  @Autowired private RedissonClient redissonClient;
+  @Autowired private IdempotencyLedger idempotencyLedger;
+
+  @BeforeEach
+  public void beforeEach() {
+    redissonClient.getKeys().flushall();
+  }
+
+  @Test
+  @DisplayName("test send once with duplicate should send once and keep a marker with ttl")
+  public void testSendOnceWithDuplicateShouldSendOnceAndKeepAMarkerWithTtl() {
+    var spanId = UUID.randomUUID().toString();
+    var sends = new AtomicInteger();
+
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(sends)).join();
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(sends)).join();
+
+    Assertions.assertEquals(1, sends.get());
+    var bucket = bucket(spanId);
+    Assertions.assertEquals(IdempotencyLedger.SENT, bucket.get());
+    Assertions.assertTrue(bucket.remainTimeToLive() > 0);
+  }
+
+  @Test
+  @DisplayName("test send once while another send is in flight should fail for a retry")
+  public void testSendOnceWhileAnotherSendIsInFlightShouldFailForARetry() {
+    var spanId = UUID.randomUUID().toString();
+    var inFlight = new CompletableFuture<Void>();
+    var sends = new AtomicInteger();
+
+    var first = idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> inFlight);
+    var second = idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(sends));
+    var exception = Assertions.assertThrows(CompletionException.class, second::join);
+    Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+    Assertions.assertEquals(0, sends.get());
+
+    inFlight.complete(null);
+    first.join();
+    Assertions.assertEquals(IdempotencyLedger.SENT, bucket(spanId).get());
+
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(sends)).join();
+    Assertions.assertEquals(0, sends.get());
+  }
+
+  @Test
+  @DisplayName("test send once after the holder's lease lapsed should send")
+  public void testSendOnceAfterTheHoldersLeaseLapsedShouldSend() {
+    var spanId = UUID.randomUUID().toString();
+    var sends = new AtomicInteger();
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, CompletableFuture::new);
+
+    bucket(spanId).delete();
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(sends)).join();
+    Assertions.assertEquals(1, sends.get());
+  }
+
+  @Test
+  @DisplayName("test send once with failed send should release the claim for the retry")
+  public void testSendOnceWithFailedSendShouldReleaseTheClaim() {
+    var spanId = UUID.randomUUID().toString();
+    var sends = new AtomicInteger();
+
+    var failed =
+        idempotencyLedger.sendOnce(
+            EMAIL_MAP,
+            spanId,
+            () -> CompletableFuture.failedFuture(new IllegalStateException("provider down")));
+    Assertions.assertThrows(CompletionException.class, failed::join);
+    Assertions.assertFalse(bucket(spanId).isExists());
+
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(sends)).join();
+    Assertions.assertEquals(1, sends.get());
+  }
+
+  @Test
+  @DisplayName("test sent marker should take less than a hundred bytes of redis memory")
+  public void testSentMarkerShouldTakeLessThanAHundredBytes() {
+    var spanId = UUID.randomUUID().toString();
+    idempotencyLedger.sendOnce(EMAIL_MAP, spanId, () -> send(new AtomicInteger())).join();
+
+    Long usage =
+        redissonClient
+            .getScript(StringCodec.INSTANCE)
+            .eval(
+                RScript.Mode.READ_ONLY,
+                "return redis.call('MEMORY', 'USAGE', KEYS[1])",
+                RScript.ReturnType.INTEGER,
+                List.of(IdempotencyLedger.key(EMAIL_MAP, spanId)));
+    Assertions.assertTrue(usage != null && usage < 100, "marker used " + usage + " bytes");
+  }
+
+  private RBucket<String> bucket(String spanId) {
+    return redissonClient.getBucket(IdempotencyLedger.key(EMAIL_MAP, spanId), StringCodec.INSTANCE);
+  }
+
+  private static CompletableFuture<Void> send(AtomicInteger sends) {
+    sends.incrementAndGet();
+    return CompletableFuture.completedFuture(null);
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.messaging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.api.messaging.Priority;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MessageDispatcherTest {
+
+  private final DispatchSettings settings = new DispatchSettings();
+  private MessageDispatcher dispatcher;
+
+  @AfterEach
+  public void afterEach() throws InterruptedException {
+    if (dispatcher != null) {
+      dispatcher.preDestroy();
+    }
+  }
+
+  @Test
+  @DisplayName("test dispatch given bulk lane saturated should still send high priority")
+  public void testDispatchGivenBulkLaneSaturatedShouldStillSendHighPriority() throws Exception {
+    settings.setBulk(new DispatchSettings.Lane(1, 10, 2));
+    dispatcher = new MessageDispatcher(settings);
+    var stalled = new CompletableFuture<Void>();
+    for (int i = 0; i < 5; i++) {
+      dispatcher.dispatch(Priority.BULK, () -> stalled);
+    }
+
+    var high = dispatcher.dispatch(Priority.HIGH, () -> CompletableFuture.completedFuture(null));
+
+    high.get(5, TimeUnit.SECONDS);
+    stalled.complete(null);
+  }
+
+  @Test
+  @DisplayName("test dispatch should limit sends awaiting the provider per lane")
+  public void testDispatchShouldLimitSendsAwaitingTheProviderPerLane() throws Exception {
+    settings.setHigh(new DispatchSettings.Lane(4, 10, 2));
+    dispatcher = new MessageDispatcher(settings);
+    var started = new AtomicInteger();
+    var responses = new ArrayList<CompletableFuture<Void>>();
+    for (int i = 0; i < 3; i++) {
+      responses.add(new CompletableFuture<>());
+    }
+    var results = new ArrayList<CompletableFuture<Void>>();
+    for (var response : responses) {
+      results.add(
+          dispatcher.dispatch(
+              Priority.HIGH,
+              () -> {
+                started.incrementAndGet();
+                return response;
+              }));
+    }
+
+    Thread.sleep(200);
+    assertEquals(2, started.get());
+
+    responses.get(0).complete(null);
+    responses.get(1).complete(null);
+    responses.get(2).complete(null);
+    CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+    assertEquals(3, started.get());
+  }
+
+  @Test
+  @DisplayName("test dispatch given failed send should complete exceptionally")
+  public void testDispatchGivenFailedSendShouldCompleteExceptionally() {
+    dispatcher = new MessageDispatcher(settings);
+
+    var result =
+        dispatcher.dispatch(
+            Priority.HIGH,
+            () -> CompletableFuture.failedFuture(new IllegalStateException("throttled")));
+
+    var exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, exception.getCause());
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.messaging;
+
+import java.util.Base64;
+import java.util.List;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MessageServiceTest {
+
+  private static final List<String> TO = List.of("github4sanjay@gmail.com");
+
+  private final MessageService messageService = new MessageService(new InlineImages());
+
+  @Test
+  @DisplayName("test get email without data url expect body untouched and subject from title")
+  public void testGetEmailWithoutDataUrlExpectBodyUntouched() {
+    var body =
+        """
+        <!doctype html>
+        <html><head><TITLE lang="en">
+          Account   &amp; Device
+        </TITLE></head><body><img src="https://example.com/logo.png"></body></html>
+        """;
+
+    var email = messageService.getEmail("id", body, "no-reply@example.com", TO, null).getEmail();
+
+    Assertions.assertSame(body, email.getBody());
+    Assertions.assertEquals(Jsoup.parse(body).title(), email.getSubject());
+    Assertions.assertTrue(email.getImages().isEmpty());
+  }
+
+  @Test
+  @DisplayName("test get email with data url expect image replaced by attachment")
+  public void testGetEmailWithDataUrlExpectImageReplacedByAttachment() {
+    var data = Base64.getEncoder().encodeToString(new byte[] {1, 2, 3});
+    var body =
+        "<html><head><title>Logo</title></head><body><img src=\"data:image/png;base64,"
+            + data
+            + "\"></body></html>";
+
+    var email = messageService.getEmail("id", body, "no-reply@example.com", TO, null).getEmail();
+
+    Assertions.assertEquals("Logo", email.getSubject());
+    Assertions.assertEquals(1, email.getImages().size());
+    Assertions.assertArrayEquals(new byte[] {1, 2, 3}, email.getImages().get(0).getData());
+    Assertions.assertFalse(email.getBody().contains("data:"));
+  }
+
+  @Test
+  @DisplayName("test get email without title expect error")
+  public void testGetEmailWithoutTitleExpectError() {
+    Assertions.assertThrows(
+        RuntimeException.class,
+        () -> messageService.getEmail("id", "<p>hi</p>", "no-reply@example.com", TO, null));
+  }
+
+  @Test
+  @DisplayName("test pre scan title expect the same text as jsoup or no answer")
+  public void testPreScanTitleExpectTheSameTextAsJsoup() {
+    for (var html :
+        List.of(
+            "<title>Plain</title>",
+            "<head><title>\n  Spread\t over\n lines </title></head>",
+            "<titles>no</titles><title>Second</title>",
+            "<title>&lt;b&gt; &eacute;t&eacute;</title>")) {
+      Assertions.assertEquals(Jsoup.parse(html).title(), HtmlPreScan.title(html), html);
+    }
+    Assertions.assertNull(HtmlPreScan.title("<!-- <title>Old</title> --><title>New</title>"));
+    Assertions.assertNull(HtmlPreScan.title("<p>no title</p>"));
+  }
+}
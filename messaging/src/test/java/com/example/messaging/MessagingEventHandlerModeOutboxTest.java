@@ -26,14 +26,22 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
       MockRedis.class,
       OutboxService.class,
       AwsConfiguration.class,
+      RateLimiterConfiguration.class,
+      DispatchSettings.class,
+      MessageDispatcher.class,
+      IdempotencyLedger.class,
+      InlineImages.class,
       MessageService.class,
       SmsService.class,
+      RawEmailWriter.class,
       EmailService.class,
-      MessagingEventHandler.class
+      MessagingEventHandler.class,
+      BulkMessagingEventHandler.class
     })
 class MessagingEventHandlerModeOutboxTest {
 
   @Autowired private MessagingEventHandler messagingEventHandler;
+  @Autowired private BulkMessagingEventHandler bulkMessagingEventHandler;
   @Autowired private RedissonClient redissonClient;
   @Autowired private OutboxService outboxService;
 
@@ -44,7 +52,7 @@ class MessagingEventHandlerModeOutboxTest {
 
   @Test
   @DisplayName("test LowPrioritySmsSentEvent expect sms is stored in redis")
-  public void testLowPrioritySmsSentEventExpectSmsIsSent() {
+  public void testLowPrioritySmsSentEventExpectSmsIsSent() throws InterruptedException {
     var phoneNumber = PhoneNumber.builder().value("+6587304661").build();
     var event =
         MessagingEvent.LowPrioritySmsSentEvent.builder()
@@ -53,8 +61,8 @@ class MessagingEventHandlerModeOutboxTest {
             .phoneNumber(phoneNumber)
             .options(Options.builder().profile("web-app").priority(Priority.BULK).build())
             .build();
-    messagingEventHandler.on(event);
-    var message = outboxService.getAllSms().get(event.getId());
+    bulkMessagingEventHandler.on(event);
+    var message = outboxService.getSms(event.getId());
     Assertions.assertEquals(phoneNumber.getValue(), message.getSms().getPhoneNumber().getValue());
     Assertions.assertEquals(event.getMessage(), message.getSms().getMessage());
   }
@@ -72,14 +80,14 @@ class MessagingEventHandlerModeOutboxTest {
             .build();
     messagingEventHandler.on(event);
 
-    var message = outboxService.getAllSms().get(event.getId());
+    var message = outboxService.getSms(event.getId());
     Assertions.assertEquals(phoneNumber.getValue(), message.getSms().getPhoneNumber().getValue());
     Assertions.assertEquals(event.getMessage(), message.getSms().getMessage());
   }
 
   @Test
   @DisplayName("test LowPriorityEmailSentEvent expect email is stored in redis")
-  public void testLowPriorityEmailSentEventExpectEmailIsSent() {
+  public void testLowPriorityEmailSentEventExpectEmailIsSent() throws InterruptedException {
     var event =
         MessagingEvent.LowPriorityEmailSentEvent.builder()
             .id(UUID.randomUUID().toString())
@@ -99,9 +107,9 @@ class MessagingEventHandlerModeOutboxTest {
             .subject("Test Subject")
             .to(List.of("github4sanjay@gmail.com"))
             .build();
-    messagingEventHandler.on(event);
+    bulkMessagingEventHandler.on(event);
 
-    var message = outboxService.getAllEmails().get(event.getId());
+    var message = outboxService.getEmail(event.getId());
     Assertions.assertEquals(event.getFrom(), message.getEmail().getFrom());
   }
 
@@ -129,7 +137,7 @@ class MessagingEventHandlerModeOutboxTest {
             .build();
     messagingEventHandler.on(event);
 
-    var message = outboxService.getAllEmails().get(event.getId());
+    var message = outboxService.getEmail(event.getId());
     Assertions.assertEquals(event.getFrom(), message.getEmail().getFrom());
   }
 }
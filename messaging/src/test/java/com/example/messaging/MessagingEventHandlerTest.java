@@ -1,6 +1,7 @@
 package com.example.messaging;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 
 import com.example.api.messaging.Options;
@@ -8,7 +9,9 @@ import com.example.api.messaging.PhoneNumber;
 import com.example.api.messaging.Priority;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,10 +24,12 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.SesAsyncClient;
 import software.amazon.awssdk.services.ses.model.SendRawEmailRequest;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.ses.model.SendRawEmailResponse;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
 
 @ExtendWith(SpringExtension.class)
 @WebFluxTest(properties = {"app.mode=production"})
@@ -34,20 +39,36 @@ import software.amazon.awssdk.services.sns.model.PublishRequest;
       MockRedis.class,
       OutboxService.class,
       AwsConfiguration.class,
+      RateLimiterConfiguration.class,
+      DispatchSettings.class,
+      MessageDispatcher.class,
+      IdempotencyLedger.class,
+      InlineImages.class,
       MessageService.class,
       SmsService.class,
+      RawEmailWriter.class,
       EmailService.class,
-      MessagingEventHandler.class
+      MessagingEventHandler.class,
+      BulkMessagingEventHandler.class
     })
 class MessagingEventHandlerTest {
 
   @Autowired private MessagingEventHandler messagingEventHandler;
-  @MockBean private SnsClient snsClient;
-  @MockBean private SesClient sesClient;
+  @Autowired private BulkMessagingEventHandler bulkMessagingEventHandler;
+  @MockBean private SnsAsyncClient snsClient;
+  @MockBean private SesAsyncClient sesClient;
+
+  @BeforeEach
+  public void beforeEach() {
+    Mockito.when(snsClient.publish(any(PublishRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(PublishResponse.builder().build()));
+    Mockito.when(sesClient.sendRawEmail(any(SendRawEmailRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(SendRawEmailResponse.builder().build()));
+  }
 
   @Test
   @DisplayName("test LowPrioritySmsSentEvent expect sms is sent")
-  public void testLowPrioritySmsSentEventExpectSmsIsSent() {
+  public void testLowPrioritySmsSentEventExpectSmsIsSent() throws InterruptedException {
     var phoneNumber = PhoneNumber.builder().value("+6587304661").build();
     var event =
         MessagingEvent.LowPrioritySmsSentEvent.builder()
@@ -56,7 +77,7 @@ class MessagingEventHandlerTest {
             .phoneNumber(phoneNumber)
             .options(Options.builder().profile("web-app").priority(Priority.BULK).build())
             .build();
-    messagingEventHandler.on(event);
+    bulkMessagingEventHandler.on(event);
 
     var requestArgumentCaptor = ArgumentCaptor.forClass(PublishRequest.class);
     Mockito.verify(snsClient, times(1)).publish(requestArgumentCaptor.capture());
@@ -87,7 +108,7 @@ class MessagingEventHandlerTest {
 
   @Test
   @DisplayName("test LowPriorityEmailSentEvent expect email is sent")
-  public void testLowPriorityEmailSentEventExpectEmailIsSent() {
+  public void testLowPriorityEmailSentEventExpectEmailIsSent() throws InterruptedException {
     var event =
         MessagingEvent.LowPriorityEmailSentEvent.builder()
             .id(UUID.randomUUID().toString())
@@ -107,7 +128,7 @@ class MessagingEventHandlerTest {
             .subject("Test Subject")
             .to(List.of("github4sanjay@gmail.com"))
             .build();
-    messagingEventHandler.on(event);
+    bulkMessagingEventHandler.on(event);
 
     var requestArgumentCaptor = ArgumentCaptor.forClass(SendRawEmailRequest.class);
     Mockito.verify(sesClient, times(1)).sendRawEmail(requestArgumentCaptor.capture());
@@ -24,8 +24,13 @@ import org.springframework.test.web.reactive.server.WebTestClient;
       MockRedis.class,
       OutboxService.class,
       AwsConfiguration.class,
+      DispatchSettings.class,
+      MessageDispatcher.class,
+      IdempotencyLedger.class,
+      InlineImages.class,
       MessageService.class,
       SmsService.class,
+      RawEmailWriter.class,
       EmailService.class,
       MessagingEventHandler.class,
       OutboxController.class
@@ -46,4 +51,20 @@ class OutboxControllerTest {
         .expectStatus()
         .isOk();
   }
+
+  @Test
+  @DisplayName("test outbox emails expect a page")
+  void testOutboxEmailsExpectAPage() {
+
+    webTestClient
+        .get()
+        .uri("/outbox/emails?size=10")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.items")
+        .isArray();
+  }
 }
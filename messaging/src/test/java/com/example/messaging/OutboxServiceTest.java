@@ -0,0 +1,90 @@
+package com.example.messaging;
+
+import com.example.api.messaging.PhoneNumber;
+import com.example.spring.core.exceptions.ApplicationException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.redisson.api.RedissonClient;
+import org.redisson.spring.starter.RedissonAutoConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@WebFluxTest
+@ImportAutoConfiguration(value = {RedissonAutoConfiguration.class})
+@ContextConfiguration(classes = {MockRedis.class, OutboxService.class})
+class OutboxServiceTest {
+
+  @Autowired private RedissonClient redissonClient;
+  @Autowired private OutboxService outboxService;
+
+  @BeforeEach
+  public void beforeEach() {
+    redissonClient.getKeys().flushall();
+  }
+
+  @Test
+  @DisplayName("test sms pages expect every message once, newest first")
+  public void testSmsPagesExpectEveryMessageOnceNewestFirst() {
+    var now = Instant.now();
+    // two messages share a millisecond, so the cursor has to tell them apart
+    outboxService.addSms(sms("a", now.minusSeconds(30)));
+    outboxService.addSms(sms("b", now.minusSeconds(20)));
+    outboxService.addSms(sms("c", now.minusSeconds(20)));
+    outboxService.addSms(sms("d", now.minusSeconds(10)));
+    outboxService.addSms(sms("e", now));
+
+    var spanIds = new ArrayList<String>();
+    var page = outboxService.getSmsPage(null, 2);
+    var pages = 1;
+    spanIds.addAll(page.getItems().stream().map(SmsMessage::getSpanId).toList());
+    while (page.getNext() != null) {
+      page = outboxService.getSmsPage(page.getNext(), 2);
+      spanIds.addAll(page.getItems().stream().map(SmsMessage::getSpanId).toList());
+      pages++;
+    }
+
+    Assertions.assertEquals(List.of("e", "d", "c", "b", "a"), spanIds);
+    Assertions.assertEquals(3, pages);
+  }
+
+  @Test
+  @DisplayName("test get sms expect the stored message")
+  public void testGetSmsExpectTheStoredMessage() {
+    var sms = sms("a", Instant.now());
+    outboxService.addSms(sms);
+
+    Assertions.assertEquals(
+        sms.getSms().getMessage(), outboxService.getSms("a").getSms().getMessage());
+  }
+
+  @Test
+  @DisplayName("test email page with invalid cursor expect bad request")
+  public void testEmailPageWithInvalidCursorExpectBadRequest() {
+    Assertions.assertThrows(
+        ApplicationException.class, () -> outboxService.getEmailPage("not-a-cursor", 10));
+  }
+
+  private static SmsMessage sms(String spanId, Instant sentAt) {
+    var sms =
+        SmsMessage.builder()
+            .spanId(spanId)
+            .sms(
+                SmsMessage.Sms.builder()
+                    .message("message " + spanId)
+                    .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+                    .build())
+            .build();
+    sms.setSentAt(sentAt.toString());
+    return sms;
+  }
+}
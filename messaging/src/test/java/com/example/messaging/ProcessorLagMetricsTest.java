@@ -0,0 +1,71 @@
+package com.example.messaging;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProcessorLagMetricsTest {
+
+  private final EventProcessingConfiguration eventProcessing =
+      mock(EventProcessingConfiguration.class);
+  private final EventStore eventStore = mock(EventStore.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  public void beforeEach() {
+    when(eventStore.createHeadToken()).thenReturn(new GlobalSequenceTrackingToken(100));
+    new ProcessorLagMetrics(eventProcessing, eventStore, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("test lag expect distance of the slowest segment from the head")
+  public void testLagExpectDistanceOfTheSlowestSegment() {
+    var processor = mock(StreamingEventProcessor.class);
+    var fast = status(OptionalLong.of(95));
+    var slow = status(OptionalLong.of(60));
+    var unclaimed = status(OptionalLong.empty());
+    when(processor.processingStatus()).thenReturn(Map.of(0, fast, 1, slow, 2, unclaimed));
+    when(eventProcessing.eventProcessor(
+            MessagingEventHandler.PROCESSING_GROUP, StreamingEventProcessor.class))
+        .thenReturn(Optional.of(processor));
+
+    Assertions.assertEquals(40, gauge(MessagingEventHandler.PROCESSING_GROUP));
+  }
+
+  @Test
+  @DisplayName("test lag without the processor on this replica expect NaN")
+  public void testLagWithoutProcessorExpectNaN() {
+    when(eventProcessing.eventProcessor(
+            BulkMessagingEventHandler.PROCESSING_GROUP, StreamingEventProcessor.class))
+        .thenReturn(Optional.empty());
+
+    Assertions.assertTrue(Double.isNaN(gauge(BulkMessagingEventHandler.PROCESSING_GROUP)));
+  }
+
+  private double gauge(String processingGroup) {
+    return meterRegistry
+        .get(ProcessorLagMetrics.METRIC_NAME)
+        .tag("processor", processingGroup)
+        .gauge()
+        .value();
+  }
+
+  private static EventTrackerStatus status(OptionalLong position) {
+    var status = mock(EventTrackerStatus.class);
+    when(status.getCurrentPosition()).thenReturn(position);
+    return status;
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.messaging;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import javax.mail.Message;
+import javax.mail.Session;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RawEmailWriterTest {
+
+  private static final byte[] LOGO = "not really a png".getBytes(StandardCharsets.UTF_8);
+
+  private final InlineImages inlineImages = new InlineImages();
+  private final RawEmailWriter rawEmailWriter = new RawEmailWriter(inlineImages);
+
+  @Test
+  @DisplayName("test write expect a mime message with the html body and inline images")
+  public void testWriteExpectAMimeMessageWithTheHtmlBodyAndInlineImages() throws Exception {
+    var email = email("Vérifiez votre compte", List.of("a@example.com", "b@example.com"));
+
+    var message = parse(rawEmailWriter.write(email).asByteArray());
+
+    Assertions.assertEquals(email.getSubject(), message.getSubject());
+    Assertions.assertEquals("no-reply@example.com", message.getFrom()[0].toString());
+    Assertions.assertEquals(2, message.getRecipients(Message.RecipientType.TO).length);
+    var mixed = (MimeMultipart) message.getContent();
+    Assertions.assertEquals(2, mixed.getCount());
+    var alternative = (MimeMultipart) mixed.getBodyPart(0).getContent();
+    Assertions.assertEquals(email.getBody(), alternative.getBodyPart(0).getContent());
+    var image = (MimeBodyPart) mixed.getBodyPart(1);
+    Assertions.assertEquals("<image01>", image.getContentID());
+    Assertions.assertTrue(image.getContentType().startsWith("image/png"));
+    Assertions.assertArrayEquals(LOGO, image.getInputStream().readAllBytes());
+  }
+
+  @Test
+  @DisplayName("test write with a shared image expect it to be encoded once")
+  public void testWriteWithASharedImageExpectItToBeEncodedOnce() {
+    var first = email("first", List.of("a@example.com"));
+    var second = email("second", List.of("b@example.com"));
+
+    rawEmailWriter.write(first);
+    rawEmailWriter.write(second);
+
+    Assertions.assertSame(first.getImages().get(0).getData(), second.getImages().get(0).getData());
+    Assertions.assertSame(
+        inlineImages.encoded(first.getImages().get(0)),
+        inlineImages.encoded(second.getImages().get(0)));
+    Assertions.assertEquals(1, inlineImages.size());
+  }
+
+  private EmailMessage.Email email(String subject, List<String> to) {
+    var logo =
+        inlineImages.fromDataUrl("image01", "image/png", Base64.getEncoder().encodeToString(LOGO));
+    return EmailMessage.Email.builder()
+        .from("no-reply@example.com")
+        .to(to)
+        .subject(subject)
+        .body("<html><body><p>Héllo</p><img src=\"cid:image01\"></body></html>")
+        .images(List.of(logo))
+        .build();
+  }
+
+  private static MimeMessage parse(byte[] raw) throws Exception {
+    return new MimeMessage(Session.getInstance(new Properties()), new ByteArrayInputStream(raw));
+  }
+}
@@ -1,11 +1,15 @@
 package com.example.messaging;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 
 import com.example.api.messaging.PhoneNumber;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,8 +22,9 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
 
 @ExtendWith(SpringExtension.class)
 @WebFluxTest(properties = {"app.mode=outbox"})
@@ -28,12 +33,20 @@ import software.amazon.awssdk.services.sns.model.PublishRequest;
     classes = {
       MockRedis.class,
       AwsConfiguration.class,
+      DispatchSettings.class,
+      IdempotencyLedger.class,
       SmsService.class,
     })
 class SmsServiceTest {
 
   @Autowired private SmsService smsService;
-  @MockBean private SnsClient snsClient;
+  @MockBean private SnsAsyncClient snsClient;
+
+  @BeforeEach
+  public void beforeEach() {
+    Mockito.when(snsClient.publish(any(PublishRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(PublishResponse.builder().build()));
+  }
 
   @Test
   @DisplayName("test send sms with duplicate sms should be sent only once")
@@ -47,8 +60,8 @@ class SmsServiceTest {
                     .build())
             .spanId(UUID.randomUUID().toString())
             .build();
-    smsService.sendSms(sms);
-    smsService.sendSms(sms);
+    smsService.sendSms(sms).join();
+    smsService.sendSms(sms).join();
 
     var requestArgumentCaptor = ArgumentCaptor.forClass(PublishRequest.class);
     Mockito.verify(snsClient, times(1)).publish(requestArgumentCaptor.capture());
@@ -56,4 +69,23 @@ class SmsServiceTest {
     Assertions.assertEquals(
         sms.getSms().getPhoneNumber().withoutPlus(), publishRequest.phoneNumber());
   }
+
+  @Test
+  @DisplayName("test send sms with duplicate sms should run before send only once")
+  public void testSendSmsWithDuplicateSmsShouldRunBeforeSendOnlyOnce() {
+    var sms =
+        SmsMessage.builder()
+            .sms(
+                SmsMessage.Sms.builder()
+                    .message("some message")
+                    .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+                    .build())
+            .spanId(UUID.randomUUID().toString())
+            .build();
+    var beforeSend = new AtomicInteger();
+    smsService.sendSms(sms, beforeSend::incrementAndGet).join();
+    smsService.sendSms(sms, beforeSend::incrementAndGet).join();
+
+    Assertions.assertEquals(1, beforeSend.get());
+  }
 }
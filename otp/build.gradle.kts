@@ -35,6 +35,7 @@ dependencies {
     implementation(project(":spring-metrics"))
     implementation(project(":spring-web"))
     implementation(project(":spring-axon-reactor"))
+    implementation(project(":rate-limiter"))
 
     implementation(project(":api-messaging"))
     implementation(project(":api-otp"))
@@ -0,0 +1,82 @@
+package com.example.otp;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel that removes expired entries from the maps of {@link LocalOtpStore}. Each
+ * entry is filed under the slot of its expiry tick, so a sweep only looks at the slots that have
+ * come due instead of scanning every map. Reads check expiry themselves; the wheel only bounds
+ * memory, and a sweep that finds an entry replaced by a later one leaves it in place.
+ */
+class ExpiryWheel {
+
+  interface Expiring {
+    long expireAt();
+  }
+
+  private record Scheduled(Map<String, ? extends Expiring> map, String key, long expireAt) {}
+
+  private final long tickMillis;
+  private final Queue<Scheduled>[] slots;
+  private final ReentrantLock sweepLock = new ReentrantLock();
+  private long sweptTick = -1;
+
+  @SuppressWarnings("unchecked")
+  ExpiryWheel(int slotCount, long tickMillis) {
+    this.tickMillis = tickMillis;
+    this.slots = new Queue[slotCount];
+    for (int i = 0; i < slotCount; i++) {
+      slots[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  void schedule(Map<String, ? extends Expiring> map, String key, long expireAt) {
+    slots[slot(expireAt / tickMillis)].add(new Scheduled(map, key, expireAt));
+  }
+
+  /** Removes what has expired by {@code now}. Skipped if another thread is already sweeping. */
+  void sweep(long now) {
+    if (!sweepLock.tryLock()) {
+      return;
+    }
+    try {
+      var nowTick = now / tickMillis;
+      if (sweptTick < 0) {
+        sweptTick = nowTick - 1;
+      }
+      var from = Math.max(sweptTick + 1, nowTick - slots.length + 1);
+      for (var tick = from; tick <= nowTick; tick++) {
+        drain(slots[slot(tick)], now);
+      }
+      sweptTick = nowTick;
+    } finally {
+      sweepLock.unlock();
+    }
+  }
+
+  private void drain(Queue<Scheduled> slot, long now) {
+    var later = new ArrayDeque<Scheduled>();
+    Scheduled scheduled;
+    while ((scheduled = slot.poll()) != null) {
+      if (scheduled.expireAt() > now) {
+        // due in a later revolution of the wheel
+        later.add(scheduled);
+        continue;
+      }
+      remove(scheduled.map(), scheduled.key(), now);
+    }
+    slot.addAll(later);
+  }
+
+  private static <V extends Expiring> void remove(Map<String, V> map, String key, long now) {
+    map.computeIfPresent(key, (k, value) -> value.expireAt() > now ? value : null);
+  }
+
+  private int slot(long tick) {
+    return (int) Math.floorMod(tick, (long) slots.length);
+  }
+}
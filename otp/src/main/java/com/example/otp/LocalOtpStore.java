@@ -0,0 +1,116 @@
+package com.example.otp;
+
+import com.example.api.otp.OtpOptions;
+import com.example.api.otp.VerifyOtpOutcome;
+import com.example.api.otp.VerifyOtpResult;
+import com.example.ratelimit.KeyedLimit;
+import com.example.ratelimit.LocalRateLimiter;
+import com.example.ratelimit.MultiAcquisition;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Clock;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process {@link OtpStore} with the same verify-attempt rules as {@link RedisOtpStore}. The
+ * check-then-write steps of one token run under one of a fixed set of striped locks, and expired
+ * entries are dropped by an {@link ExpiryWheel} swept as requests come in. Request limits are kept
+ * by a {@link LocalRateLimiter}. State is lost on restart and not shared between replicas.
+ */
+@Service
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "local")
+public class LocalOtpStore implements OtpStore {
+
+  private static final int STRIPES = 64;
+  private static final int WHEEL_SLOTS = 512;
+  private static final long WHEEL_TICK_MILLIS = 1_000;
+
+  private final Clock clock;
+  private final LocalRateLimiter rateLimiter;
+  private final Object[] locks = new Object[STRIPES];
+  private final ConcurrentHashMap<String, TokenState> tokens = new ConcurrentHashMap<>();
+  private final ExpiryWheel expiryWheel = new ExpiryWheel(WHEEL_SLOTS, WHEEL_TICK_MILLIS);
+
+  public LocalOtpStore(Clock clock) {
+    this.clock = clock;
+    this.rateLimiter = new LocalRateLimiter(clock);
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  @Override
+  public MultiAcquisition issueToken(
+      String token, String otp, OtpOptions options, List<KeyedLimit> limits) {
+    var acquisition = rateLimiter.tryAcquireAll(limits);
+    if (!acquisition.acquired()) {
+      return acquisition;
+    }
+    var now = clock.millis();
+    expiryWheel.sweep(now);
+    put(
+        tokens,
+        token,
+        new TokenState(
+            Objects.requireNonNull(otp),
+            options.getState(),
+            now + options.getExpiration() * 1000L,
+            options.getVerifyLimitCount() + 1));
+    return acquisition;
+  }
+
+  @Override
+  public VerifyOtpOutcome verifyOtp(String token, String otp) {
+    var now = clock.millis();
+    expiryWheel.sweep(now);
+    synchronized (lock(token)) {
+      var tokenState = tokens.get(token);
+      if (tokenState == null || tokenState.expireAt() <= now) {
+        return VerifyOtpOutcome.builder().remainingCount(0).result(VerifyOtpResult.Expired).build();
+      }
+      var remaining = tokenState.remaining() - 1;
+      if (remaining <= 0) {
+        tokens.remove(token);
+        return VerifyOtpOutcome.builder().remainingCount(0).result(VerifyOtpResult.Blocked).build();
+      }
+      if (tokenState.otp().equals(otp)) {
+        tokens.remove(token);
+        return VerifyOtpOutcome.builder()
+            .remainingCount(0)
+            .result(VerifyOtpResult.Valid)
+            .state(tokenState.state())
+            .build();
+      }
+      tokens.put(token, tokenState.withRemaining(remaining));
+      return VerifyOtpOutcome.builder()
+          .remainingCount(remaining)
+          .result(VerifyOtpResult.Invalid)
+          .build();
+    }
+  }
+
+  int size() {
+    return tokens.size();
+  }
+
+  private <V extends ExpiryWheel.Expiring> void put(
+      ConcurrentHashMap<String, V> map, String key, V value) {
+    map.put(key, value);
+    expiryWheel.schedule(map, key, value.expireAt());
+  }
+
+  private Object lock(String key) {
+    return locks[Math.floorMod(key.hashCode(), STRIPES)];
+  }
+
+  private record TokenState(String otp, JsonNode state, long expireAt, int remaining)
+      implements ExpiryWheel.Expiring {
+
+    TokenState withRemaining(int remaining) {
+      return new TokenState(otp, state, expireAt, remaining);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.otp;
+
+import static com.example.otp.RedisOtpStore.OTP_TOKEN_VERIFY_COUNT;
+
+import com.example.api.otp.OtpOptions;
+import com.example.api.otp.VerifyOtpOutcome;
+import com.example.api.otp.VerifyOtpResult;
+import com.example.ratelimit.KeyedLimit;
+import com.example.ratelimit.MultiAcquisition;
+import com.example.ratelimit.RateLimiter;
+import com.example.ratelimit.RedisRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link OtpStore} in the layout used before per-token keys: every token lives in one {@code
+ * RMapCache} written with the client's codec, next to a verify counter per token. Entries expire
+ * through Redisson's eviction task and the map's auxiliary sorted sets, and the whole map sits in
+ * one cluster slot. Kept to compare against {@link RedisOtpStore} and to roll back to; select it
+ * with {@code app.otp.store: map-cache}.
+ *
+ * <p>Unlike {@link RedisOtpStore}, the request limits and the token are two round trips: the
+ * permits are taken first, then the token and its counter are written in one atomic batch.
+ */
+@Service
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "map-cache")
+public class MapCacheOtpStore implements OtpStore {
+
+  public static final String OTP_REFERENCES_TOKEN_MAP = "otp-references-token";
+
+  private final RedissonClient redisson;
+  private final Clock clock;
+  private final RateLimiter rateLimiter;
+
+  public MapCacheOtpStore(RedissonClient redisson, Clock clock) {
+    this.redisson = redisson;
+    this.clock = clock;
+    this.rateLimiter = new RedisRateLimiter(redisson, clock);
+  }
+
+  @Override
+  public MultiAcquisition issueToken(
+      String token, String otp, OtpOptions options, List<KeyedLimit> limits) {
+    var acquisition = rateLimiter.tryAcquireAll(limits);
+    if (!acquisition.acquired()) {
+      return acquisition;
+    }
+    var expiration = Duration.ofSeconds(options.getExpiration());
+    var batch =
+        redisson.createBatch(
+            BatchOptions.defaults().executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+    batch
+        .<String, TokenState>getMapCache(OTP_REFERENCES_TOKEN_MAP)
+        .putAsync(
+            token,
+            new TokenState(
+                Objects.requireNonNull(otp),
+                options.getState(),
+                clock.millis() + expiration.toMillis()),
+            expiration.toMillis(),
+            TimeUnit.MILLISECONDS);
+    var counter = batch.getAtomicLong(OTP_TOKEN_VERIFY_COUNT + token);
+    counter.setAsync(options.getVerifyLimitCount() + 1);
+    counter.expireAsync(expiration);
+    batch.execute();
+    return acquisition;
+  }
+
+  @Override
+  public VerifyOtpOutcome verifyOtp(String token, String expectedOtp) {
+    RMapCache<String, TokenState> map = redisson.getMapCache(OTP_REFERENCES_TOKEN_MAP);
+    var tokenState = map.get(token);
+    if (tokenState == null || tokenState.getExpireAt() <= clock.millis()) {
+      return expired();
+    }
+    var counter = redisson.getAtomicLong(OTP_TOKEN_VERIFY_COUNT + token);
+    var remaining = counter.decrementAndGet();
+    if (remaining < 0) {
+      // the counter had expired, the decrement created it again
+      counter.delete();
+      return expired();
+    }
+    if (remaining == 0) {
+      map.fastRemove(token);
+      counter.delete();
+      return VerifyOtpOutcome.builder().remainingCount(0).result(VerifyOtpResult.Blocked).build();
+    }
+    if (tokenState.getOtp().equals(expectedOtp)) {
+      // only the verify that removes the entry may use the code
+      if (map.fastRemove(token) == 0) {
+        return expired();
+      }
+      counter.delete();
+      return VerifyOtpOutcome.builder()
+          .remainingCount(0)
+          .result(VerifyOtpResult.Valid)
+          .state(tokenState.getState())
+          .build();
+    }
+    return VerifyOtpOutcome.builder()
+        .remainingCount((int) remaining)
+        .result(VerifyOtpResult.Invalid)
+        .build();
+  }
+
+  private static VerifyOtpOutcome expired() {
+    return VerifyOtpOutcome.builder().remainingCount(0).result(VerifyOtpResult.Expired).build();
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  static class TokenState {
+    private String otp;
+    private JsonNode state;
+    private Long expireAt;
+  }
+}
@@ -4,9 +4,15 @@ import com.example.api.messaging.MessagingCommand;
 import com.example.api.messaging.PhoneNumber;
 import com.example.api.messaging.Priority;
 import com.example.api.otp.OtpCommand;
+import com.example.api.otp.OtpOptions;
 import com.example.api.otp.SendOtpOutcome;
 import com.example.api.otp.SendOtpResult;
 import com.example.api.otp.VerifyOtpOutcome;
+import com.example.ratelimit.Acquisition;
+import com.example.ratelimit.KeyedLimit;
+import com.example.ratelimit.Limit;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -18,85 +24,47 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 public class OtpCommandHandler {
+
+  public static final String OTP_REFERENCES_RESEND = "otp-references-resend-";
+  public static final String OTP_REFERENCES_RATE_LIMIT = "otp-references-rate-limit-log-";
+
   private final CommandGateway commandGateway;
-  private final OtpService otpService;
+  private final OtpStore otpStore;
 
   @CommandHandler
   public SendOtpOutcome on(OtpCommand.SendSmsOtpCommand command) {
     var options = command.getOptions();
-    var mayBeRetryAfterForEarlyRequest =
-        otpService.getRetryAfterForEarlyRequest(command.getId(), options.getResendAfter());
-    if (mayBeRetryAfterForEarlyRequest.isPresent()) {
-      return SendOtpOutcome.builder()
-          .retryAfter(mayBeRetryAfterForEarlyRequest.get())
-          .result(SendOtpResult.BlockedEarlyRequest)
-          .build();
-    }
-
-    var mayBeRetryAfterForRateLimit =
-        otpService.getRetryAfterForRateLimit(
-            command.getId(), options.getRateLimitCount(), options.getRateLimitExpiry());
-    if (mayBeRetryAfterForRateLimit.isPresent()) {
-      return SendOtpOutcome.builder()
-          .retryAfter(mayBeRetryAfterForRateLimit.get())
-          .result(SendOtpResult.BlockedTooManyRequests)
-          .build();
-    }
-
-    var token = UUID.randomUUID().toString();
     var otp = RandomStringUtils.randomNumeric(6);
-
-    otpService.saveToken(
-        token, otp, options.getState(), options.getExpiration(), options.getVerifyLimitCount());
+    var outcome = issueToken(command.getId(), otp, options);
+    if (outcome.getResult() != SendOtpResult.Ok) {
+      return outcome;
+    }
 
     commandGateway.sendAndWait(
         MessagingCommand.SendSmsCommand.builder()
             .message(command.getMessage().replace("{code}", otp))
-            .id(token)
+            .id(outcome.getToken())
             .phoneNumber(PhoneNumber.builder().value(command.getPhoneNumber().getValue()).build())
             .profile(options.getProfile())
             .priority(Priority.HIGH)
             .build());
 
-    return SendOtpOutcome.builder()
-        .token(token)
-        .retryAfter(options.getResendAfter().longValue())
-        .result(SendOtpResult.Ok)
-        .build();
+    return outcome;
   }
 
   @CommandHandler
   public SendOtpOutcome on(OtpCommand.SendEmailOtpCommand command) {
     var options = command.getOptions();
-    var mayBeRetryAfterForEarlyRequest =
-        otpService.getRetryAfterForEarlyRequest(command.getId(), options.getResendAfter());
-    if (mayBeRetryAfterForEarlyRequest.isPresent()) {
-      return SendOtpOutcome.builder()
-          .retryAfter(mayBeRetryAfterForEarlyRequest.get())
-          .result(SendOtpResult.BlockedEarlyRequest)
-          .build();
-    }
-
-    var mayBeRetryAfterForRateLimit =
-        otpService.getRetryAfterForRateLimit(
-            command.getId(), options.getRateLimitCount(), options.getRateLimitExpiry());
-    if (mayBeRetryAfterForRateLimit.isPresent()) {
-      return SendOtpOutcome.builder()
-          .retryAfter(mayBeRetryAfterForRateLimit.get())
-          .result(SendOtpResult.BlockedTooManyRequests)
-          .build();
-    }
-
-    var token = UUID.randomUUID().toString();
     var otp = RandomStringUtils.randomNumeric(6);
-
-    otpService.saveToken(
-        token, otp, options.getState(), options.getExpiration(), options.getVerifyLimitCount());
+    var outcome = issueToken(command.getId(), otp, options);
+    if (outcome.getResult() != SendOtpResult.Ok) {
+      return outcome;
+    }
 
     commandGateway.sendAndWait(
         MessagingCommand.SendEmailCommand.builder()
             .subject(command.getSubject().replace("{code}", otp))
-            .id(token)
+            .id(outcome.getToken())
             .body(command.getBody().replace("{code}", otp))
             .from(command.getFromEmail())
             .to(List.of(command.getToEmail()))
@@ -104,6 +72,43 @@ public class OtpCommandHandler {
             .priority(Priority.HIGH)
             .build());
 
+    return outcome;
+  }
+
+  @CommandHandler
+  public VerifyOtpOutcome on(OtpCommand.VerifyOtpCommand command) {
+    return otpStore.verifyOtp(command.getToken(), command.getOtp());
+  }
+
+  /**
+   * Allows one request per {@code resendAfter}, then {@code rateLimitCount} per sliding {@code
+   * rateLimitExpiry}. Both limits and the token are written by the store in one step, so a request
+   * blocked by either limit uses up neither. The limit keys share the {@code {id}} hash tag.
+   */
+  private SendOtpOutcome issueToken(String id, String otp, OtpOptions options) {
+    var limits = new ArrayList<KeyedLimit>(2);
+    if (options.getResendAfter() > 0) {
+      limits.add(
+          KeyedLimit.of(
+              OTP_REFERENCES_RESEND + "{" + id + "}",
+              Limit.of(1, Duration.ofSeconds(options.getResendAfter()))));
+    }
+    limits.add(
+        KeyedLimit.of(
+            OTP_REFERENCES_RATE_LIMIT + "{" + id + "}",
+            Limit.of(
+                options.getRateLimitCount(), Duration.ofSeconds(options.getRateLimitExpiry()))));
+
+    var token = UUID.randomUUID().toString();
+    var issued = otpStore.issueToken(token, otp, options, limits);
+    if (!issued.acquired()) {
+      // the rate limit is always the last one, anything before it is the resend limit
+      return blocked(
+          issued.denied() < limits.size() - 1
+              ? SendOtpResult.BlockedEarlyRequest
+              : SendOtpResult.BlockedTooManyRequests,
+          issued.acquisition());
+    }
     return SendOtpOutcome.builder()
         .token(token)
         .retryAfter(options.getResendAfter().longValue())
@@ -111,8 +116,10 @@ public class OtpCommandHandler {
         .build();
   }
 
-  @CommandHandler
-  public VerifyOtpOutcome on(OtpCommand.VerifyOtpCommand command) {
-    return otpService.verifyOtp(command.getToken(), command.getOtp());
+  private static SendOtpOutcome blocked(SendOtpResult result, Acquisition acquisition) {
+    return SendOtpOutcome.builder()
+        .retryAfter(acquisition.retryAfterSeconds())
+        .result(result)
+        .build();
   }
 }
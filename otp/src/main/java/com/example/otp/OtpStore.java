@@ -0,0 +1,32 @@
+package com.example.otp;
+
+import com.example.api.otp.OtpOptions;
+import com.example.api.otp.VerifyOtpOutcome;
+import com.example.ratelimit.KeyedLimit;
+import com.example.ratelimit.MultiAcquisition;
+import java.util.List;
+
+/**
+ * Keeps issued OTPs together with their verify-attempt bookkeeping. {@link RedisOtpStore} is shared
+ * by every replica; {@link LocalOtpStore} keeps the same state in process for single-node and test
+ * deployments. {@link MapCacheOtpStore} is the previous single-map layout, kept for comparison.
+ * Select one with {@code app.otp.store}. How often an OTP may be requested is checked by the store
+ * as it issues the token, against the sliding-log limits of {@link
+ * com.example.ratelimit.RateLimiter}.
+ */
+public interface OtpStore {
+
+  /**
+   * Takes one permit from each of {@code limits} and stores {@code otp} under {@code token} until
+   * {@link OtpOptions#getExpiration()}, as one step. When a limit refuses, nothing is taken and
+   * nothing is stored.
+   */
+  MultiAcquisition issueToken(
+      String token, String otp, OtpOptions options, List<KeyedLimit> limits);
+
+  /**
+   * Checks {@code otp} against the one issued under {@code token}. A matching code, or running out
+   * of attempts, removes the token, so a code can be used only once.
+   */
+  VerifyOtpOutcome verifyOtp(String token, String otp);
+}
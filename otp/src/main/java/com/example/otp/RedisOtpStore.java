@@ -0,0 +1,153 @@
+package com.example.otp;
+
+import com.example.api.otp.OtpOptions;
+import com.example.api.otp.VerifyOtpOutcome;
+import com.example.api.otp.VerifyOtpResult;
+import com.example.ratelimit.KeyedLimit;
+import com.example.ratelimit.MultiAcquisition;
+import com.example.ratelimit.RedisRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link OtpStore} keeping each token in its own hash next to a verify counter, both expiring with
+ * the token. The two keys share the {@code {token}} hash tag, so a verify stays in one cluster
+ * slot.
+ *
+ * <p>Issuing a token also takes the request limits in the same script, and those keys are tagged
+ * with the recipient instead, so issuing spans two slots. It needs a single-node Redis, or one
+ * shard, as deployed today; on Redis Cluster it fails with {@code CROSSSLOT}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "redis", matchIfMissing = true)
+public class RedisOtpStore implements OtpStore {
+
+  public static final String OTP_REFERENCES_TOKEN = "otp-references-token-";
+  public static final String OTP_TOKEN_VERIFY_COUNT = "otp-references-verify-limit-";
+
+  /**
+   * Request limits, token store and verify-counter initialisation in one round trip. The token is
+   * only written when every limit gave its permit, and no permit is taken when one refuses.
+   *
+   * <p>KEYS: token, verify-count, then the rate-limit logs. ARGV: otp, state, expire at (ms),
+   * expiration (s), verify count, then the arguments of {@link
+   * RedisRateLimiter#ACQUIRE_ALL_FUNCTION}. Returns the result of {@code acquire_all}.
+   */
+  private static final RedisScript ISSUE_TOKEN =
+      new RedisScript(
+          RedisRateLimiter.ACQUIRE_ALL_FUNCTION
+              + """
+              local acquired = acquire_all(3, 6)
+              if acquired[1] ~= 0 then
+                return acquired
+              end
+              local expiration = tonumber(ARGV[4]) * 1000
+              redis.call('DEL', KEYS[1])
+              redis.call('HSET', KEYS[1], 'otp', ARGV[1], 'state', ARGV[2], 'expireAt', ARGV[3])
+              redis.call('PEXPIRE', KEYS[1], expiration)
+              redis.call('SET', KEYS[2], ARGV[5], 'PX', expiration)
+              return acquired
+              """);
+
+  /**
+   * Expiry check, attempt decrement and code comparison in one round trip. The token and its
+   * counter are deleted once the code matches or the attempts run out, so a code can be used once
+   * and concurrent verifies cannot both succeed.
+   *
+   * <p>KEYS: token, verify-count. ARGV: now (ms), otp. Returns result, remaining count, state.
+   */
+  private static final RedisScript VERIFY_TOKEN =
+      new RedisScript(
+          """
+          local token = redis.call('HMGET', KEYS[1], 'otp', 'state', 'expireAt')
+          if not token[1] or tonumber(token[3]) <= tonumber(ARGV[1]) then
+            return {'Expired', 0, ''}
+          end
+          if redis.call('EXISTS', KEYS[2]) == 0 then
+            return {'Expired', 0, ''}
+          end
+          local remaining = redis.call('DECR', KEYS[2])
+          if remaining <= 0 then
+            redis.call('DEL', KEYS[1], KEYS[2])
+            return {'Blocked', 0, ''}
+          end
+          if token[1] == ARGV[2] then
+            redis.call('DEL', KEYS[1], KEYS[2])
+            return {'Valid', 0, token[2]}
+          end
+          return {'Invalid', remaining, ''}
+          """);
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final RedissonClient redisson;
+  private final Clock clock;
+
+  @Override
+  public MultiAcquisition issueToken(
+      String token, String otp, OtpOptions options, List<KeyedLimit> limits) {
+    var now = clock.instant();
+    var keys = new ArrayList<Object>(2 + limits.size());
+    keys.add(tokenKey(token));
+    keys.add(verifyCountKey(token));
+    limits.forEach(limit -> keys.add(limit.key()));
+    var args = new ArrayList<Object>();
+    args.add(Objects.requireNonNull(otp));
+    args.add(writeState(options.getState()));
+    args.add(String.valueOf(now.plus(options.getExpiration(), ChronoUnit.SECONDS).toEpochMilli()));
+    args.add(String.valueOf(options.getExpiration()));
+    args.add(String.valueOf(options.getVerifyLimitCount() + 1));
+    args.addAll(RedisRateLimiter.acquireAllArgs(now.toEpochMilli(), limits));
+    List<Long> result =
+        ISSUE_TOKEN.eval(
+            redisson, RScript.Mode.READ_WRITE, RScript.ReturnType.MULTI, keys, args.toArray());
+    return RedisRateLimiter.toMultiAcquisition(result);
+  }
+
+  @Override
+  public VerifyOtpOutcome verifyOtp(String token, String expectedOtp) {
+    List<Object> result =
+        VERIFY_TOKEN.eval(
+            redisson,
+            RScript.Mode.READ_WRITE,
+            RScript.ReturnType.MULTI,
+            List.of(tokenKey(token), verifyCountKey(token)),
+            String.valueOf(clock.instant().toEpochMilli()),
+            expectedOtp);
+    return VerifyOtpOutcome.builder()
+        .result(VerifyOtpResult.valueOf((String) result.get(0)))
+        .remainingCount(((Long) result.get(1)).intValue())
+        .state(readState((String) result.get(2)))
+        .build();
+  }
+
+  static String tokenKey(String token) {
+    return OTP_REFERENCES_TOKEN + "{" + token + "}";
+  }
+
+  static String verifyCountKey(String token) {
+    return OTP_TOKEN_VERIFY_COUNT + "{" + token + "}";
+  }
+
+  @SneakyThrows
+  private static String writeState(JsonNode state) {
+    return state == null ? "" : OBJECT_MAPPER.writeValueAsString(state);
+  }
+
+  @SneakyThrows
+  private static JsonNode readState(String state) {
+    return state == null || state.isEmpty() ? null : OBJECT_MAPPER.readTree(state);
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.otp;
+
+import java.util.List;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * A Lua script run with {@code EVALSHA}, so only the digest travels with each call. The script is
+ * loaded on first use and loaded again if the server has lost it after a restart or {@code SCRIPT
+ * FLUSH}. Arguments and results use {@link StringCodec}, which keeps the stored values readable by
+ * plain {@code RBucket} / {@code RAtomicLong} views of the same keys.
+ */
+class RedisScript {
+
+  private final String source;
+  private volatile String sha;
+
+  RedisScript(String source) {
+    this.source = source;
+  }
+
+  <R> R eval(
+      RedissonClient redisson,
+      RScript.Mode mode,
+      RScript.ReturnType returnType,
+      List<Object> keys,
+      Object... values) {
+    var script = redisson.getScript(StringCodec.INSTANCE);
+    var digest = sha;
+    if (digest == null) {
+      digest = sha = script.scriptLoad(source);
+    }
+    try {
+      return script.evalSha(mode, digest, returnType, keys, values);
+    } catch (RedisException e) {
+      if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+        throw e;
+      }
+      sha = script.scriptLoad(source);
+      return script.evalSha(mode, sha, returnType, keys, values);
+    }
+  }
+}
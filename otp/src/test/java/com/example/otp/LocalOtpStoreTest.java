@@ -0,0 +1,57 @@
+package com.example.otp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.api.otp.OtpOptions;
+import com.example.api.otp.VerifyOtpResult;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LocalOtpStoreTest {
+
+  private final TestClock clock = new TestClock();
+  private final LocalOtpStore otpStore = new LocalOtpStore(clock);
+
+  @Test
+  @DisplayName("test verify otp given correct otp should return Valid once")
+  void testVerifyOtpGivenCorrectOtpShouldReturnValidOnce() {
+    var token = issue(OtpOptions.builder().build());
+
+    assertEquals(VerifyOtpResult.Valid, otpStore.verifyOtp(token, "123456").getResult());
+    assertEquals(VerifyOtpResult.Expired, otpStore.verifyOtp(token, "123456").getResult());
+  }
+
+  @Test
+  @DisplayName("test verify otp more than verify limit count should return Blocked")
+  void testVerifyOtpMoreThanVerifyLimitCountShouldReturnBlocked() {
+    var token = issue(OtpOptions.builder().verifyLimitCount(3).build());
+
+    var first = otpStore.verifyOtp(token, "000000");
+    assertEquals(VerifyOtpResult.Invalid, first.getResult());
+    assertEquals(2, first.getRemainingCount());
+    assertEquals(VerifyOtpResult.Invalid, otpStore.verifyOtp(token, "000000").getResult());
+    assertEquals(VerifyOtpResult.Invalid, otpStore.verifyOtp(token, "000000").getResult());
+    assertEquals(VerifyOtpResult.Blocked, otpStore.verifyOtp(token, "123456").getResult());
+    assertEquals(VerifyOtpResult.Expired, otpStore.verifyOtp(token, "123456").getResult());
+  }
+
+  @Test
+  @DisplayName("test verify otp given expired otp should return Expired and drop the entries")
+  void testVerifyOtpGivenExpiredOtpShouldReturnExpiredAndDropTheEntries() {
+    var token = issue(OtpOptions.builder().expiration(5).build());
+    assertEquals(1, otpStore.size());
+
+    clock.forward(5, ChronoUnit.SECONDS);
+    assertEquals(VerifyOtpResult.Expired, otpStore.verifyOtp(token, "123456").getResult());
+    assertEquals(0, otpStore.size());
+  }
+
+  private String issue(OtpOptions options) {
+    var token = UUID.randomUUID().toString();
+    otpStore.issueToken(token, "123456", options, List.of());
+    return token;
+  }
+}
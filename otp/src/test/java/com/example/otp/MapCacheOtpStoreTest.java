@@ -0,0 +1,94 @@
+package com.example.otp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.api.otp.OtpOptions;
+import com.example.api.otp.VerifyOtpResult;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.spring.starter.RedissonAutoConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@WebFluxTest
+@ImportAutoConfiguration(value = {RedissonAutoConfiguration.class})
+@ContextConfiguration(classes = {MockRedis.class, RedisOtpStore.class, TestConfiguration.class})
+class MapCacheOtpStoreTest {
+
+  private static final int TOKENS = 100;
+
+  @Autowired private RedissonClient redissonClient;
+  @Autowired private RedisOtpStore redisOtpStore;
+  @Autowired private TestClock clock;
+
+  private MapCacheOtpStore mapCacheOtpStore;
+
+  @BeforeEach
+  public void beforeEach() {
+    redissonClient.getKeys().flushall();
+    mapCacheOtpStore = new MapCacheOtpStore(redissonClient, clock);
+  }
+
+  @Test
+  @DisplayName("test verify otp with map-cache layout should return Valid once")
+  public void testVerifyOtpWithMapCacheLayoutShouldReturnValidOnce() {
+    var state = JsonNodeFactory.instance.objectNode().put("user", "github4sanjay@gmail.com");
+    var token = UUID.randomUUID().toString();
+    mapCacheOtpStore.issueToken(
+        token, "123456", OtpOptions.builder().state(state).build(), List.of());
+
+    assertEquals(VerifyOtpResult.Invalid, mapCacheOtpStore.verifyOtp(token, "000000").getResult());
+    var valid = mapCacheOtpStore.verifyOtp(token, "123456");
+    assertEquals(VerifyOtpResult.Valid, valid.getResult());
+    assertEquals(state, valid.getState());
+    assertEquals(VerifyOtpResult.Expired, mapCacheOtpStore.verifyOtp(token, "123456").getResult());
+  }
+
+  @Test
+  @DisplayName("test keys layout should use less redis memory than map-cache layout")
+  public void testKeysLayoutShouldUseLessRedisMemoryThanMapCacheLayout() {
+    var options = OtpOptions.builder().build();
+    for (int i = 0; i < TOKENS; i++) {
+      redisOtpStore.issueToken(UUID.randomUUID().toString(), "123456", options, List.of());
+    }
+    var keysLayout = memoryUsage();
+
+    redissonClient.getKeys().flushall();
+    for (int i = 0; i < TOKENS; i++) {
+      mapCacheOtpStore.issueToken(UUID.randomUUID().toString(), "123456", options, List.of());
+    }
+    var mapCacheLayout = memoryUsage();
+
+    assertTrue(
+        keysLayout < mapCacheLayout,
+        "keys layout used " + keysLayout + " bytes, map-cache layout " + mapCacheLayout);
+  }
+
+  private long memoryUsage() {
+    long total = 0;
+    for (var key : redissonClient.getKeys().getKeys()) {
+      Long usage =
+          redissonClient
+              .getScript(StringCodec.INSTANCE)
+              .eval(
+                  RScript.Mode.READ_ONLY,
+                  "return redis.call('MEMORY', 'USAGE', KEYS[1])",
+                  RScript.ReturnType.INTEGER,
+                  List.of(key));
+      total += usage;
+    }
+    return total;
+  }
+}
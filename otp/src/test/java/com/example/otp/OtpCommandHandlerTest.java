@@ -1,12 +1,13 @@
 package com.example.otp;
 
-import static com.example.otp.OtpService.OTP_TOKEN_VERIFY_COUNT;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.example.api.messaging.MessagingCommand;
 import com.example.api.otp.*;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import java.time.temporal.ChronoUnit;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.axonframework.commandhandling.gateway.CommandGateway;
@@ -29,7 +30,12 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 @WebFluxTest
 @ImportAutoConfiguration(value = {RedissonAutoConfiguration.class})
 @ContextConfiguration(
-    classes = {MockRedis.class, OtpCommandHandler.class, OtpService.class, TestConfiguration.class})
+    classes = {
+      MockRedis.class,
+      OtpCommandHandler.class,
+      RedisOtpStore.class,
+      TestConfiguration.class
+    })
 public class OtpCommandHandlerTest {
 
   @Autowired private OtpCommandHandler commandHandler;
@@ -210,7 +216,7 @@ public class OtpCommandHandlerTest {
         OtpCommand.VerifyOtpCommand.builder().otp(otp).token(sendOtpOutcome.getToken()).build();
 
     RAtomicLong atomicLong =
-        redissonClient.getAtomicLong(OTP_TOKEN_VERIFY_COUNT + sendOtpOutcome.getToken());
+        redissonClient.getAtomicLong(RedisOtpStore.verifyCountKey(sendOtpOutcome.getToken()));
     atomicLong.delete();
     var verifyOtpOutcomeAfterExpiry = commandHandler.on(verifyOtpCommand);
     assertEquals(VerifyOtpResult.Expired, verifyOtpOutcomeAfterExpiry.getResult());
@@ -266,4 +272,146 @@ public class OtpCommandHandlerTest {
     var sendOtpOutcome4 = commandHandler.on(sendSmsOtpCommand);
     assertEquals(SendOtpResult.BlockedTooManyRequests, sendOtpOutcome4.getResult());
   }
+
+  @Test
+  @DisplayName(
+      "test SendSmsOtpCommand given Ok should store token and verify counter with expiration")
+  public void testSendSmsOtpCommandGivenOkShouldStoreTokenAndVerifyCounterWithExpiration() {
+    var sendSmsOtpCommand =
+        OtpCommand.SendSmsOtpCommand.builder()
+            .message("Use {code} to login to example.com and manage your account")
+            .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+            .options(OtpOptions.builder().expiration(60).verifyLimitCount(3).build())
+            .reference("login/+6587304661")
+            .build();
+    var sendOtpOutcome = commandHandler.on(sendSmsOtpCommand);
+    assertEquals(SendOtpResult.Ok, sendOtpOutcome.getResult());
+
+    var verifyCount =
+        redissonClient.getAtomicLong(RedisOtpStore.verifyCountKey(sendOtpOutcome.getToken()));
+    assertEquals(4, verifyCount.get());
+    assertTrue(verifyCount.remainTimeToLive() > 0);
+    assertTrue(
+        redissonClient.getBucket(RedisOtpStore.tokenKey(sendOtpOutcome.getToken())).isExists());
+    assertEquals(
+        redissonClient.getKeys().getSlot(RedisOtpStore.tokenKey(sendOtpOutcome.getToken())),
+        redissonClient.getKeys().getSlot(RedisOtpStore.verifyCountKey(sendOtpOutcome.getToken())));
+  }
+
+  @Test
+  @DisplayName("test SendSmsOtpCommand given blocked request should not send an SendSmsCommand")
+  public void testSendSmsOtpCommandGivenBlockedRequestShouldNotSendAnSendSmsCommand() {
+    var sendSmsOtpCommand =
+        OtpCommand.SendSmsOtpCommand.builder()
+            .message("Use {code} to login to example.com and manage your account")
+            .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+            .options(OtpOptions.builder().resendAfter(30).build())
+            .reference("login/+6587304661")
+            .build();
+    commandHandler.on(sendSmsOtpCommand);
+    var sendOtpOutcome = commandHandler.on(sendSmsOtpCommand);
+
+    assertEquals(SendOtpResult.BlockedEarlyRequest, sendOtpOutcome.getResult());
+    assertNull(sendOtpOutcome.getToken());
+    assertEquals(30, sendOtpOutcome.getRetryAfter());
+    verify(commandGateway, times(1)).sendAndWait(any());
+  }
+
+  @Test
+  @DisplayName("test VerifyOtpCommand given otp already used should return VerifyOtpResult Expired")
+  public void testVerifyOtpCommandGivenOtpAlreadyUsedShouldReturnVerifyOtpResultExpired() {
+    var state = JsonNodeFactory.instance.objectNode().put("user", "github4sanjay@gmail.com");
+    var sendSmsOtpCommand =
+        OtpCommand.SendSmsOtpCommand.builder()
+            .message("Use {code} to login to example.com and manage your account")
+            .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+            .options(OtpOptions.builder().state(state).build())
+            .reference("login/+6587304661")
+            .build();
+    var sendOtpOutcome = commandHandler.on(sendSmsOtpCommand);
+    var requestArgumentCaptor = ArgumentCaptor.forClass(MessagingCommand.SendSmsCommand.class);
+    verify(commandGateway, times(1)).sendAndWait(requestArgumentCaptor.capture());
+    var otp = TestUtils.extractOtp(requestArgumentCaptor.getValue().getMessage());
+    var verifyOtpCommand =
+        OtpCommand.VerifyOtpCommand.builder().otp(otp).token(sendOtpOutcome.getToken()).build();
+
+    var firstOutcome = commandHandler.on(verifyOtpCommand);
+    assertEquals(VerifyOtpResult.Valid, firstOutcome.getResult());
+    assertEquals(state, firstOutcome.getState());
+
+    var secondOutcome = commandHandler.on(verifyOtpCommand);
+    assertEquals(VerifyOtpResult.Expired, secondOutcome.getResult());
+    assertNull(secondOutcome.getState());
+  }
+
+  @Test
+  @DisplayName(
+      "test SendSmsOtpCommand given more than rate limit count should return exact retryAfter")
+  public void testSendSmsOtpCommandGivenMoreThanRateLimitCountShouldReturnExactRetryAfter() {
+    var sendSmsOtpCommand =
+        OtpCommand.SendSmsOtpCommand.builder()
+            .message("Use {code} to login to example.com and manage your account")
+            .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+            .options(
+                OtpOptions.builder().resendAfter(5).rateLimitCount(3).rateLimitExpiry(30).build())
+            .reference("login/+6587304661")
+            .build();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+      clock.forward(5, ChronoUnit.SECONDS);
+    }
+
+    var blocked = commandHandler.on(sendSmsOtpCommand);
+    assertEquals(SendOtpResult.BlockedTooManyRequests, blocked.getResult());
+    assertEquals(15, blocked.getRetryAfter());
+
+    clock.forward(15, ChronoUnit.SECONDS);
+    assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+  }
+
+  @Test
+  @DisplayName("test SendSmsOtpCommand given too many requests should not use the resend limit")
+  public void testSendSmsOtpCommandGivenTooManyRequestsShouldNotUseTheResendLimit() {
+    var sendSmsOtpCommand =
+        OtpCommand.SendSmsOtpCommand.builder()
+            .message("Use {code} to login to example.com and manage your account")
+            .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+            .options(
+                OtpOptions.builder().resendAfter(5).rateLimitCount(2).rateLimitExpiry(30).build())
+            .reference("login/+6587304661")
+            .build();
+    assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+    clock.forward(5, ChronoUnit.SECONDS);
+    assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+
+    clock.forward(23, ChronoUnit.SECONDS);
+    var blocked = commandHandler.on(sendSmsOtpCommand);
+    assertEquals(SendOtpResult.BlockedTooManyRequests, blocked.getResult());
+    assertEquals(2, blocked.getRetryAfter());
+
+    clock.forward(2, ChronoUnit.SECONDS);
+    assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+  }
+
+  @Test
+  @DisplayName("test SendSmsOtpCommand given early requests should not use the rate limit")
+  public void testSendSmsOtpCommandGivenEarlyRequestsShouldNotUseTheRateLimit() {
+    var sendSmsOtpCommand =
+        OtpCommand.SendSmsOtpCommand.builder()
+            .message("Use {code} to login to example.com and manage your account")
+            .phoneNumber(PhoneNumber.builder().value("+6587304661").build())
+            .options(
+                OtpOptions.builder().resendAfter(5).rateLimitCount(2).rateLimitExpiry(30).build())
+            .reference("login/+6587304661")
+            .build();
+    assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(
+          SendOtpResult.BlockedEarlyRequest, commandHandler.on(sendSmsOtpCommand).getResult());
+    }
+
+    clock.forward(5, ChronoUnit.SECONDS);
+    assertEquals(SendOtpResult.Ok, commandHandler.on(sendSmsOtpCommand).getResult());
+    verify(commandGateway, times(2)).sendAndWait(any());
+  }
 }
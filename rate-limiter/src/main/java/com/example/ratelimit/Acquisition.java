@@ -0,0 +1,24 @@
+package com.example.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of {@link RateLimiter#tryAcquire}. {@code remaining} is what is left in the window after
+ * this call, and {@code retryAfter} is how long until the requested permits would be granted; zero
+ * when they were.
+ */
+public record Acquisition(boolean acquired, int remaining, Duration retryAfter) {
+
+  static Acquisition granted(int remaining) {
+    return new Acquisition(true, remaining, Duration.ZERO);
+  }
+
+  static Acquisition denied(int remaining, long retryAfterMillis) {
+    return new Acquisition(false, Math.max(remaining, 0), Duration.ofMillis(retryAfterMillis));
+  }
+
+  /** {@link #retryAfter()} rounded up to whole seconds, as sent in a {@code Retry-After} header. */
+  public long retryAfterSeconds() {
+    return (retryAfter.toMillis() + 999) / 1000;
+  }
+}
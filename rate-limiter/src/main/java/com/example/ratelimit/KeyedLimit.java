@@ -0,0 +1,16 @@
+package com.example.ratelimit;
+
+import java.util.Objects;
+
+/** A {@link Limit} applied to one key, for {@link RateLimiter#tryAcquireAll}. */
+public record KeyedLimit(String key, Limit limit) {
+
+  public KeyedLimit {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(limit, "limit");
+  }
+
+  public static KeyedLimit of(String key, Limit limit) {
+    return new KeyedLimit(key, limit);
+  }
+}
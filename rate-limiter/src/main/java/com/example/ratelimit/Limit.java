@@ -0,0 +1,22 @@
+package com.example.ratelimit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/** At most {@code permits} acquisitions in any window of length {@code period}. */
+public record Limit(int permits, Duration period) {
+
+  public Limit {
+    Objects.requireNonNull(period, "period");
+    if (permits <= 0) {
+      throw new IllegalArgumentException("permits must be positive, was " + permits);
+    }
+    if (period.toMillis() <= 0) {
+      throw new IllegalArgumentException("period must be at least 1ms, was " + period);
+    }
+  }
+
+  public static Limit of(int permits, Duration period) {
+    return new Limit(permits, period);
+  }
+}
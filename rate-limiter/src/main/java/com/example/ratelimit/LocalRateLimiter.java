@@ -0,0 +1,182 @@
+package com.example.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process {@link RateLimiter}. Each key keeps the timestamps of its permits in a ring buffer
+ * sized to the limit, updated inside {@link ConcurrentHashMap#compute} so that a check and the
+ * permits it takes are atomic per key. Keys whose window has emptied are dropped by a sweep that
+ * runs at most once per {@code sweepInterval}. State is not shared between replicas.
+ *
+ * <p>Single-key calls share the read side of a lock and stay atomic through {@code compute};
+ * {@link #tryAcquireAll} takes the write side, so no other call sees its keys half updated.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+  private static final Duration DEFAULT_SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+  private final Clock clock;
+  private final long sweepIntervalMillis;
+  private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+  private final AtomicLong nextSweep;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public LocalRateLimiter(Clock clock) {
+    this(clock, DEFAULT_SWEEP_INTERVAL);
+  }
+
+  public LocalRateLimiter(Clock clock, Duration sweepInterval) {
+    this.clock = clock;
+    this.sweepIntervalMillis = sweepInterval.toMillis();
+    this.nextSweep = new AtomicLong(clock.millis() + sweepIntervalMillis);
+  }
+
+  @Override
+  public Acquisition tryAcquire(String key, Limit limit, int permits) {
+    RateLimiter.checkPermits(limit, permits);
+    var now = clock.millis();
+    sweep(now);
+    var period = limit.period().toMillis();
+    var result = new Acquisition[1];
+    lock.readLock().lock();
+    try {
+      windows.compute(
+          key,
+          (k, window) -> {
+            if (window == null) {
+              window = new Window(limit.permits());
+            }
+            window.evict(now - period);
+            window.resize(limit.permits());
+            var used = window.size;
+            if (used + permits > limit.permits()) {
+              // the permits are free once enough of the oldest entries have left the window
+              var stamp = window.stamp(used + permits - limit.permits() - 1);
+              result[0] = Acquisition.denied(limit.permits() - used, stamp + period - now);
+            } else {
+              window.add(now, permits, period);
+              result[0] = Acquisition.granted(limit.permits() - used - permits);
+            }
+            return window.size == 0 ? null : window;
+          });
+    } finally {
+      lock.readLock().unlock();
+    }
+    return result[0];
+  }
+
+  @Override
+  public MultiAcquisition tryAcquireAll(List<KeyedLimit> limits) {
+    var now = clock.millis();
+    sweep(now);
+    lock.writeLock().lock();
+    try {
+      var used = new int[limits.size()];
+      for (int i = 0; i < limits.size(); i++) {
+        var limit = limits.get(i).limit();
+        var period = limit.period().toMillis();
+        var window = windows.get(limits.get(i).key());
+        if (window != null) {
+          window.evict(now - period);
+          window.resize(limit.permits());
+          used[i] = window.size;
+        }
+        if (used[i] >= limit.permits()) {
+          var stamp = window.stamp(used[i] - limit.permits());
+          return new MultiAcquisition(
+              i, Acquisition.denied(limit.permits() - used[i], stamp + period - now));
+        }
+      }
+      var remaining = 0;
+      for (int i = 0; i < limits.size(); i++) {
+        var limit = limits.get(i).limit();
+        windows
+            .computeIfAbsent(limits.get(i).key(), key -> new Window(limit.permits()))
+            .add(now, 1, limit.period().toMillis());
+        remaining = limit.permits() - used[i] - 1;
+      }
+      return new MultiAcquisition(-1, Acquisition.granted(remaining));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  int size() {
+    return windows.size();
+  }
+
+  private void sweep(long now) {
+    var due = nextSweep.get();
+    if (now < due || !nextSweep.compareAndSet(due, now + sweepIntervalMillis)) {
+      return;
+    }
+    lock.readLock().lock();
+    try {
+      for (var key : windows.keySet()) {
+        windows.computeIfPresent(key, (k, window) -> window.expiresAt() <= now ? null : window);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Ring buffer of permit timestamps, oldest first. Only touched inside {@code compute} or under
+   * the write lock.
+   */
+  private static final class Window {
+
+    private long[] stamps;
+    private int head;
+    private int size;
+    private long period;
+
+    Window(int capacity) {
+      this.stamps = new long[capacity];
+    }
+
+    void evict(long cutoff) {
+      while (size > 0 && stamps[head] <= cutoff) {
+        head = (head + 1) % stamps.length;
+        size--;
+      }
+    }
+
+    long stamp(int index) {
+      return stamps[(head + index) % stamps.length];
+    }
+
+    void add(long now, int permits, long period) {
+      for (int i = 0; i < permits; i++) {
+        stamps[(head + size) % stamps.length] = now;
+        size++;
+      }
+      this.period = period;
+    }
+
+    /** Keeps the newest entries when a key is used with a different limit than before. */
+    void resize(int capacity) {
+      if (capacity == stamps.length) {
+        return;
+      }
+      var keep = Math.min(size, capacity);
+      var resized = new long[capacity];
+      for (int i = 0; i < keep; i++) {
+        resized[i] = stamp(size - keep + i);
+      }
+      stamps = resized;
+      head = 0;
+      size = keep;
+    }
+
+    long expiresAt() {
+      return size == 0 ? Long.MIN_VALUE : stamp(size - 1) + period;
+    }
+  }
+}
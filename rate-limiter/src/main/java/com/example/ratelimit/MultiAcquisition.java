@@ -0,0 +1,14 @@
+package com.example.ratelimit;
+
+/**
+ * Outcome of {@link RateLimiter#tryAcquireAll}. Either every limit gave its permit, or none was
+ * taken and {@code denied} is the index of the first limit that refused, with its {@code
+ * acquisition}. When all were granted {@code denied} is {@code -1} and {@code acquisition} is the
+ * outcome of the last limit.
+ */
+public record MultiAcquisition(int denied, Acquisition acquisition) {
+
+  public boolean acquired() {
+    return denied < 0;
+  }
+}
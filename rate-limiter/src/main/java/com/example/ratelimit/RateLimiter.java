@@ -0,0 +1,38 @@
+package com.example.ratelimit;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Sliding-log rate limiter: a key may take {@link Limit#permits()} permits in any window of {@link
+ * Limit#period()}, with no burst allowed at the edge of a fixed window. Denied calls take nothing,
+ * and report the exact time until enough of the earlier permits leave the window.
+ */
+public interface RateLimiter {
+
+  /** Takes {@code permits} permits for {@code key} at once, or none of them. */
+  Acquisition tryAcquire(String key, Limit limit, int permits);
+
+  default Acquisition tryAcquire(String key, Limit limit) {
+    return tryAcquire(key, limit, 1);
+  }
+
+  /**
+   * Takes one permit from each of {@code limits}, or none of them: a request counted against a
+   * short and a long window never uses up one while the other turns it away. Keys must be distinct.
+   */
+  MultiAcquisition tryAcquireAll(List<KeyedLimit> limits);
+
+  /** Same as {@link #tryAcquire(String, Limit, int)} without blocking the calling thread. */
+  default CompletionStage<Acquisition> tryAcquireAsync(String key, Limit limit, int permits) {
+    return CompletableFuture.completedFuture(tryAcquire(key, limit, permits));
+  }
+
+  static void checkPermits(Limit limit, int permits) {
+    if (permits <= 0 || permits > limit.permits()) {
+      throw new IllegalArgumentException(
+          "permits must be between 1 and " + limit.permits() + ", was " + permits);
+    }
+  }
+}
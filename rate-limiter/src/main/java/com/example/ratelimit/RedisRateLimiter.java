@@ -0,0 +1,228 @@
+package com.example.ratelimit;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * {@link RateLimiter} shared by every replica. Each key is a sorted set of permits scored by the
+ * time they were taken; one Lua script drops the entries that left the window, counts the rest and
+ * adds the new permits, so the check and the write are atomic. The key expires one period after
+ * its last permit. Times come from the caller's {@link Clock}, not the Redis server's.
+ *
+ * <p>{@link #ACQUIRE_ALL_FUNCTION} is the same check over several keys. Scripts that store
+ * something only when a request is within its limits can start with it, so the permits and the
+ * write happen in one atomic round trip.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+  /**
+   * KEYS: the log. ARGV: now (ms), period (ms), limit, permits, member prefix. Returns acquired
+   * (0/1), remaining, retry after (ms).
+   */
+  private static final String ACQUIRE =
+      """
+      local now = tonumber(ARGV[1])
+      local period = tonumber(ARGV[2])
+      local limit = tonumber(ARGV[3])
+      local permits = tonumber(ARGV[4])
+      redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', string.format('%.0f', now - period))
+      local used = redis.call('ZCARD', KEYS[1])
+      if used + permits > limit then
+        local index = used + permits - limit - 1
+        local oldest = redis.call('ZRANGE', KEYS[1], index, index, 'WITHSCORES')
+        return {0, limit - used, tonumber(oldest[2]) + period - now}
+      end
+      for i = 1, permits do
+        redis.call('ZADD', KEYS[1], ARGV[1], ARGV[5] .. ':' .. i)
+      end
+      redis.call('PEXPIRE', KEYS[1], period)
+      return {1, limit - used - permits, 0}
+      """;
+
+  /**
+   * Defines {@code acquire_all(first_key, first_arg)}, which takes one permit from each log in
+   * {@code KEYS[first_key..#KEYS]}, or none. ARGV from {@code first_arg}: now (ms), member, then
+   * period (ms) and limit for each log, as built by {@link #acquireAllArgs}. Returns the position
+   * of the first log that refused counted from 1, or 0 when all were granted, then remaining and
+   * retry after (ms); read it with {@link #toMultiAcquisition}.
+   */
+  public static final String ACQUIRE_ALL_FUNCTION =
+      """
+      local function acquire_all(first_key, first_arg)
+        local now = tonumber(ARGV[first_arg])
+        local used = {}
+        for i = first_key, #KEYS do
+          local arg = first_arg + 2 * (i - first_key + 1)
+          local period = tonumber(ARGV[arg])
+          local limit = tonumber(ARGV[arg + 1])
+          redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', string.format('%.0f', now - period))
+          used[i] = redis.call('ZCARD', KEYS[i])
+          if used[i] >= limit then
+            local index = used[i] - limit
+            local oldest = redis.call('ZRANGE', KEYS[i], index, index, 'WITHSCORES')
+            return {i - first_key + 1, limit - used[i], tonumber(oldest[2]) + period - now}
+          end
+        end
+        local remaining = 0
+        for i = first_key, #KEYS do
+          local arg = first_arg + 2 * (i - first_key + 1)
+          redis.call('ZADD', KEYS[i], ARGV[first_arg], ARGV[first_arg + 1])
+          redis.call('PEXPIRE', KEYS[i], ARGV[arg])
+          remaining = tonumber(ARGV[arg + 1]) - used[i] - 1
+        end
+        return {0, remaining, 0}
+      end
+      """;
+
+  private static final String ACQUIRE_ALL = ACQUIRE_ALL_FUNCTION + "return acquire_all(1, 1)\n";
+
+  private final RedissonClient redisson;
+  private final Clock clock;
+  private volatile String sha;
+  private volatile String allSha;
+
+  public RedisRateLimiter(RedissonClient redisson, Clock clock) {
+    this.redisson = redisson;
+    this.clock = clock;
+  }
+
+  @Override
+  public Acquisition tryAcquire(String key, Limit limit, int permits) {
+    RateLimiter.checkPermits(limit, permits);
+    var script = redisson.getScript(StringCodec.INSTANCE);
+    var args = args(limit, permits);
+    var digest = sha;
+    if (digest == null) {
+      digest = remember(script.scriptLoad(ACQUIRE));
+    }
+    try {
+      return toAcquisition(evalSha(script, digest, key, args));
+    } catch (RedisException e) {
+      if (!isNoScript(e)) {
+        throw e;
+      }
+      return toAcquisition(evalSha(script, remember(script.scriptLoad(ACQUIRE)), key, args));
+    }
+  }
+
+  @Override
+  public MultiAcquisition tryAcquireAll(List<KeyedLimit> limits) {
+    var script = redisson.getScript(StringCodec.INSTANCE);
+    var keys = new ArrayList<Object>(limits.size());
+    limits.forEach(limit -> keys.add(limit.key()));
+    var args = acquireAllArgs(clock.millis(), limits);
+    var digest = allSha;
+    if (digest == null) {
+      digest = allSha = script.scriptLoad(ACQUIRE_ALL);
+    }
+    List<Long> result;
+    try {
+      result =
+          script.evalSha(
+              RScript.Mode.READ_WRITE, digest, RScript.ReturnType.MULTI, keys, args.toArray());
+    } catch (RedisException e) {
+      if (!isNoScript(e)) {
+        throw e;
+      }
+      allSha = script.scriptLoad(ACQUIRE_ALL);
+      result =
+          script.evalSha(
+              RScript.Mode.READ_WRITE, allSha, RScript.ReturnType.MULTI, keys, args.toArray());
+    }
+    return toMultiAcquisition(result);
+  }
+
+  /** ARGV for {@link #ACQUIRE_ALL_FUNCTION}, to be placed at its {@code first_arg}. */
+  public static List<Object> acquireAllArgs(long now, List<KeyedLimit> limits) {
+    var args = new ArrayList<Object>(2 + 2 * limits.size());
+    args.add(String.valueOf(now));
+    args.add(UUID.randomUUID().toString());
+    for (var limit : limits) {
+      args.add(String.valueOf(limit.limit().period().toMillis()));
+      args.add(String.valueOf(limit.limit().permits()));
+    }
+    return args;
+  }
+
+  /** Reads the result of {@code acquire_all}. */
+  public static MultiAcquisition toMultiAcquisition(List<Long> result) {
+    var position = result.get(0).intValue();
+    var remaining = result.get(1).intValue();
+    return position == 0
+        ? new MultiAcquisition(-1, Acquisition.granted(remaining))
+        : new MultiAcquisition(position - 1, Acquisition.denied(remaining, result.get(2)));
+  }
+
+  @Override
+  public CompletionStage<Acquisition> tryAcquireAsync(String key, Limit limit, int permits) {
+    RateLimiter.checkPermits(limit, permits);
+    var script = redisson.getScript(StringCodec.INSTANCE);
+    var args = args(limit, permits);
+    var digest = sha;
+    CompletionStage<String> loaded =
+        digest != null
+            ? CompletableFuture.completedFuture(digest)
+            : script.scriptLoadAsync(ACQUIRE).thenApply(this::remember);
+    return loaded
+        .thenCompose(loadedSha -> evalShaAsync(script, loadedSha, key, args))
+        .exceptionallyCompose(
+            e -> {
+              var cause = e instanceof CompletionException ? e.getCause() : e;
+              if (!(cause instanceof RedisException redisException)
+                  || !isNoScript(redisException)) {
+                return CompletableFuture.<List<Long>>failedFuture(cause);
+              }
+              return script
+                  .scriptLoadAsync(ACQUIRE)
+                  .thenApply(this::remember)
+                  .thenCompose(reloaded -> evalShaAsync(script, reloaded, key, args));
+            })
+        .thenApply(RedisRateLimiter::toAcquisition);
+  }
+
+  private static List<Long> evalSha(RScript script, String digest, String key, Object[] args) {
+    return script.evalSha(
+        RScript.Mode.READ_WRITE, digest, RScript.ReturnType.MULTI, List.<Object>of(key), args);
+  }
+
+  private static CompletionStage<List<Long>> evalShaAsync(
+      RScript script, String digest, String key, Object[] args) {
+    return script.evalShaAsync(
+        RScript.Mode.READ_WRITE, digest, RScript.ReturnType.MULTI, List.<Object>of(key), args);
+  }
+
+  private String remember(String digest) {
+    sha = digest;
+    return digest;
+  }
+
+  private Object[] args(Limit limit, int permits) {
+    return new Object[] {
+      String.valueOf(clock.millis()),
+      String.valueOf(limit.period().toMillis()),
+      String.valueOf(limit.permits()),
+      String.valueOf(permits),
+      UUID.randomUUID().toString()
+    };
+  }
+
+  private static boolean isNoScript(RedisException e) {
+    return e.getMessage() != null && e.getMessage().contains("NOSCRIPT");
+  }
+
+  private static Acquisition toAcquisition(List<Long> result) {
+    var remaining = result.get(1).intValue();
+    return result.get(0) == 1
+        ? Acquisition.granted(remaining)
+        : Acquisition.denied(remaining, result.get(2));
+  }
+}
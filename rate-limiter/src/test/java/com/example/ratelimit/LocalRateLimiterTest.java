@@ -0,0 +1,108 @@
+package com.example.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LocalRateLimiterTest {
+
+  private static final Limit THREE_PER_30_SECONDS = Limit.of(3, Duration.ofSeconds(30));
+
+  private final TestClock clock = new TestClock();
+  private final LocalRateLimiter rateLimiter = new LocalRateLimiter(clock, Duration.ofSeconds(1));
+
+  @Test
+  @DisplayName("test tryAcquire given more than limit in window should return exact retryAfter")
+  void testTryAcquireGivenMoreThanLimitInWindowShouldReturnExactRetryAfter() {
+    for (int i = 0; i < 3; i++) {
+      var acquisition = rateLimiter.tryAcquire("login/a", THREE_PER_30_SECONDS);
+      assertTrue(acquisition.acquired());
+      assertEquals(2 - i, acquisition.remaining());
+      clock.forward(5, ChronoUnit.SECONDS);
+    }
+
+    var denied = rateLimiter.tryAcquire("login/a", THREE_PER_30_SECONDS);
+    assertFalse(denied.acquired());
+    assertEquals(0, denied.remaining());
+    assertEquals(Duration.ofSeconds(15), denied.retryAfter());
+
+    clock.forward(15, ChronoUnit.SECONDS);
+    assertTrue(rateLimiter.tryAcquire("login/a", THREE_PER_30_SECONDS).acquired());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire given burst at a window edge should not double the limit")
+  void testTryAcquireGivenBurstAtAWindowEdgeShouldNotDoubleTheLimit() {
+    clock.forward(29, ChronoUnit.SECONDS);
+    assertTrue(rateLimiter.tryAcquire("login/b", THREE_PER_30_SECONDS, 3).acquired());
+
+    clock.forward(2, ChronoUnit.SECONDS);
+    var denied = rateLimiter.tryAcquire("login/b", THREE_PER_30_SECONDS);
+    assertFalse(denied.acquired());
+    assertEquals(Duration.ofSeconds(28), denied.retryAfter());
+    assertEquals(28, denied.retryAfterSeconds());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire given batch should take all permits or none")
+  void testTryAcquireGivenBatchShouldTakeAllPermitsOrNone() {
+    assertTrue(rateLimiter.tryAcquire("login/c", THREE_PER_30_SECONDS).acquired());
+    clock.forward(10, ChronoUnit.SECONDS);
+
+    var denied = rateLimiter.tryAcquire("login/c", THREE_PER_30_SECONDS, 3);
+    assertFalse(denied.acquired());
+    assertEquals(2, denied.remaining());
+    assertEquals(Duration.ofSeconds(20), denied.retryAfter());
+
+    var acquired = rateLimiter.tryAcquire("login/c", THREE_PER_30_SECONDS, 2);
+    assertTrue(acquired.acquired());
+    assertEquals(0, acquired.remaining());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire given more permits than the limit should throw")
+  void testTryAcquireGivenMorePermitsThanTheLimitShouldThrow() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> rateLimiter.tryAcquire("login/d", THREE_PER_30_SECONDS, 4));
+  }
+
+  @Test
+  @DisplayName("test tryAcquireAll given one limit refusing should take no permit")
+  void testTryAcquireAllGivenOneLimitRefusingShouldTakeNoPermit() {
+    var resend = Limit.of(1, Duration.ofSeconds(5));
+    var limits =
+        List.of(
+            KeyedLimit.of("otp/resend", resend),
+            KeyedLimit.of("otp/rate", Limit.of(2, Duration.ofSeconds(30))));
+    var first = rateLimiter.tryAcquireAll(limits);
+    assertTrue(first.acquired());
+    assertEquals(1, first.acquisition().remaining());
+    clock.forward(5, ChronoUnit.SECONDS);
+    assertTrue(rateLimiter.tryAcquireAll(limits).acquired());
+
+    clock.forward(5, ChronoUnit.SECONDS);
+    var denied = rateLimiter.tryAcquireAll(limits);
+    assertFalse(denied.acquired());
+    assertEquals(1, denied.denied());
+    assertEquals(Duration.ofSeconds(20), denied.acquisition().retryAfter());
+
+    assertTrue(rateLimiter.tryAcquire("otp/resend", resend).acquired());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire should drop keys whose window is empty")
+  void testTryAcquireShouldDropKeysWhoseWindowIsEmpty() {
+    rateLimiter.tryAcquire("login/e", THREE_PER_30_SECONDS);
+    rateLimiter.tryAcquire("login/f", Limit.of(1, Duration.ofMinutes(5)));
+    assertEquals(2, rateLimiter.size());
+
+    clock.forward(30, ChronoUnit.SECONDS);
+    rateLimiter.tryAcquire("login/f", Limit.of(1, Duration.ofMinutes(5)));
+    assertEquals(1, rateLimiter.size());
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+class RedisRateLimiterTest {
+
+  private static final int PORT = 6382;
+  private static final Limit THREE_PER_30_SECONDS = Limit.of(3, Duration.ofSeconds(30));
+
+  private static RedisServer server;
+  private static RedissonClient redisson;
+
+  private final TestClock clock = new TestClock();
+  private RedisRateLimiter rateLimiter;
+
+  @BeforeAll
+  static void beforeAll() throws Exception {
+    server = new RedisServer(PORT);
+    server.start();
+    var config = new Config();
+    config.useSingleServer().setAddress("redis://localhost:" + PORT);
+    redisson = Redisson.create(config);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    redisson.shutdown();
+    server.stop();
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    redisson.getKeys().flushall();
+    rateLimiter = new RedisRateLimiter(redisson, clock);
+  }
+
+  @Test
+  @DisplayName("test tryAcquire given more than limit in window should return exact retryAfter")
+  void testTryAcquireGivenMoreThanLimitInWindowShouldReturnExactRetryAfter() {
+    for (int i = 0; i < 3; i++) {
+      var acquisition = rateLimiter.tryAcquire("login/a", THREE_PER_30_SECONDS);
+      assertTrue(acquisition.acquired());
+      assertEquals(2 - i, acquisition.remaining());
+      clock.forward(5, ChronoUnit.SECONDS);
+    }
+
+    var denied = rateLimiter.tryAcquire("login/a", THREE_PER_30_SECONDS);
+    assertFalse(denied.acquired());
+    assertEquals(Duration.ofSeconds(15), denied.retryAfter());
+
+    clock.forward(15, ChronoUnit.SECONDS);
+    assertTrue(rateLimiter.tryAcquire("login/a", THREE_PER_30_SECONDS).acquired());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire given batch should take all permits or none")
+  void testTryAcquireGivenBatchShouldTakeAllPermitsOrNone() {
+    assertTrue(rateLimiter.tryAcquire("login/b", THREE_PER_30_SECONDS).acquired());
+    clock.forward(10, ChronoUnit.SECONDS);
+
+    var denied = rateLimiter.tryAcquire("login/b", THREE_PER_30_SECONDS, 3);
+    assertFalse(denied.acquired());
+    assertEquals(2, denied.remaining());
+    assertEquals(Duration.ofSeconds(20), denied.retryAfter());
+
+    assertTrue(rateLimiter.tryAcquire("login/b", THREE_PER_30_SECONDS, 2).acquired());
+    assertEquals(3, redisson.getScoredSortedSet("login/b").size());
+    assertTrue(redisson.getScoredSortedSet("login/b").remainTimeToLive() > 0);
+  }
+
+  @Test
+  @DisplayName("test tryAcquireAll given one limit refusing should take no permit")
+  void testTryAcquireAllGivenOneLimitRefusingShouldTakeNoPermit() {
+    var resend = Limit.of(1, Duration.ofSeconds(5));
+    var limits =
+        List.of(
+            KeyedLimit.of("otp/resend", resend),
+            KeyedLimit.of("otp/rate", Limit.of(2, Duration.ofSeconds(30))));
+    var first = rateLimiter.tryAcquireAll(limits);
+    assertTrue(first.acquired());
+    assertEquals(1, first.acquisition().remaining());
+    clock.forward(5, ChronoUnit.SECONDS);
+    assertTrue(rateLimiter.tryAcquireAll(limits).acquired());
+
+    clock.forward(5, ChronoUnit.SECONDS);
+    var denied = rateLimiter.tryAcquireAll(limits);
+    assertFalse(denied.acquired());
+    assertEquals(1, denied.denied());
+    assertEquals(Duration.ofSeconds(20), denied.acquisition().retryAfter());
+
+    assertTrue(rateLimiter.tryAcquire("otp/resend", resend).acquired());
+  }
+
+  @Test
+  @DisplayName("test tryAcquireAsync should share the window with tryAcquire")
+  void testTryAcquireAsyncShouldShareTheWindowWithTryAcquire() {
+    assertTrue(rateLimiter.tryAcquire("login/c", THREE_PER_30_SECONDS, 2).acquired());
+
+    var acquired = acquireAsync("login/c");
+    assertTrue(acquired.acquired());
+    assertEquals(0, acquired.remaining());
+
+    assertFalse(acquireAsync("login/c").acquired());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire given script flushed should load it again")
+  void testTryAcquireGivenScriptFlushedShouldLoadItAgain() {
+    assertTrue(rateLimiter.tryAcquire("login/d", THREE_PER_30_SECONDS).acquired());
+    redisson.getScript().scriptFlush();
+
+    assertTrue(rateLimiter.tryAcquire("login/d", THREE_PER_30_SECONDS).acquired());
+    redisson.getScript().scriptFlush();
+
+    assertTrue(acquireAsync("login/d").acquired());
+  }
+
+  private Acquisition acquireAsync(String key) {
+    return rateLimiter.tryAcquireAsync(key, THREE_PER_30_SECONDS, 1).toCompletableFuture().join();
+  }
+}
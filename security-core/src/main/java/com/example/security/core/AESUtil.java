@@ -7,7 +7,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.*;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -16,6 +18,22 @@ import lombok.SneakyThrows;
 public class AESUtil {
 
   public static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+  public static final String GCM_ALGORITHM = "AES/GCM/NoPadding";
+
+  /** Marks cipher texts written by {@link #encryptGcm}; anything else is legacy CBC. */
+  public static final String GCM_PREFIX = "gcm:";
+
+  private static final int GCM_NONCE_LENGTH = 12;
+  private static final int GCM_TAG_LENGTH = 128;
+  private static final int MAX_DERIVED_KEYS = 64;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  /**
+   * PBKDF2 with 65,536 iterations takes tens of milliseconds, while the (password, salt) pairs are
+   * static per client configuration, so derived keys are kept for the life of the process.
+   */
+  private static final ConcurrentHashMap<PasswordAndSalt, SecretKey> DERIVED_KEYS =
+      new ConcurrentHashMap<>();
 
   public static SecretKey generateKey(int n) throws NoSuchAlgorithmException {
     var keyGenerator = KeyGenerator.getInstance("AES");
@@ -31,9 +49,23 @@ public class AESUtil {
     return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
   }
 
+  public static SecretKey getCachedKeyFromPassword(String password, String salt)
+      throws NoSuchAlgorithmException, InvalidKeySpecException {
+    var cacheKey = new PasswordAndSalt(password, salt);
+    var key = DERIVED_KEYS.get(cacheKey);
+    if (key == null) {
+      key = getKeyFromPassword(password, salt);
+      if (DERIVED_KEYS.size() >= MAX_DERIVED_KEYS) {
+        DERIVED_KEYS.clear();
+      }
+      DERIVED_KEYS.put(cacheKey, key);
+    }
+    return key;
+  }
+
   public static IvParameterSpec generateIv() {
     var iv = new byte[16];
-    new SecureRandom().nextBytes(iv);
+    RANDOM.nextBytes(iv);
     return generateIv(iv);
   }
 
@@ -43,23 +75,58 @@ public class AESUtil {
 
   @SneakyThrows
   public static String encrypt(String input, String password, String salt, IvParameterSpec iv) {
-    return encrypt(ALGORITHM, input, getKeyFromPassword(password, salt), iv);
+    return encrypt(ALGORITHM, input, getCachedKeyFromPassword(password, salt), iv);
   }
 
   public static String encrypt(String algorithm, String input, SecretKey key, IvParameterSpec iv)
       throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidAlgorithmParameterException,
           InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
 
-    var cipher = Cipher.getInstance(algorithm);
+    var cipher = CipherInstances.get(algorithm);
     cipher.init(Cipher.ENCRYPT_MODE, key, iv);
     var cipherText = cipher.doFinal(input.getBytes(StandardCharsets.UTF_8));
     return Base64.getEncoder().encodeToString(cipherText);
   }
 
+  /**
+   * Encrypts with AES-GCM under a fresh random nonce. The nonce is stored in front of the cipher
+   * text, so unlike the CBC variant no separate IV has to be kept, and one may not be shared.
+   */
+  @SneakyThrows
+  public static String encryptGcm(String input, String password, String salt) {
+    var nonce = new byte[GCM_NONCE_LENGTH];
+    RANDOM.nextBytes(nonce);
+    var cipher = CipherInstances.get(GCM_ALGORITHM);
+    cipher.init(
+        Cipher.ENCRYPT_MODE,
+        getCachedKeyFromPassword(password, salt),
+        new GCMParameterSpec(GCM_TAG_LENGTH, nonce));
+    var encrypted = cipher.doFinal(input.getBytes(StandardCharsets.UTF_8));
+    var output = new byte[nonce.length + encrypted.length];
+    System.arraycopy(nonce, 0, output, 0, nonce.length);
+    System.arraycopy(encrypted, 0, output, nonce.length, encrypted.length);
+    return GCM_PREFIX + Base64.getEncoder().encodeToString(output);
+  }
+
+  /**
+   * Decrypts either format: values written by {@link #encryptGcm} carry their own nonce and ignore
+   * {@code iv}, older values are CBC under the given {@code iv}.
+   */
   @SneakyThrows
   public static String decrypt(
       String cipherText, String password, String salt, IvParameterSpec iv) {
-    return decrypt(ALGORITHM, cipherText, getKeyFromPassword(password, salt), iv);
+    var key = getCachedKeyFromPassword(password, salt);
+    if (cipherText.startsWith(GCM_PREFIX)) {
+      var input = Base64.getDecoder().decode(cipherText.substring(GCM_PREFIX.length()));
+      var cipher = CipherInstances.get(GCM_ALGORITHM);
+      cipher.init(
+          Cipher.DECRYPT_MODE,
+          key,
+          new GCMParameterSpec(GCM_TAG_LENGTH, input, 0, GCM_NONCE_LENGTH));
+      var plainText = cipher.doFinal(input, GCM_NONCE_LENGTH, input.length - GCM_NONCE_LENGTH);
+      return new String(plainText, StandardCharsets.UTF_8);
+    }
+    return decrypt(ALGORITHM, cipherText, key, iv);
   }
 
   public static String decrypt(
@@ -67,9 +134,11 @@ public class AESUtil {
       throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidAlgorithmParameterException,
           InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
 
-    var cipher = Cipher.getInstance(algorithm);
+    var cipher = CipherInstances.get(algorithm);
     cipher.init(Cipher.DECRYPT_MODE, key, iv);
     var plainText = cipher.doFinal(Base64.getDecoder().decode(cipherText));
     return new String(plainText);
   }
+
+  private record PasswordAndSalt(String password, String salt) {}
 }
@@ -0,0 +1,32 @@
+package com.example.security.core;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * Per-thread pool of {@link Cipher} instances, for the same reason as {@link SignatureInstances}:
+ * the provider lookup in {@code Cipher.getInstance} costs more than the encryption of a short
+ * secret, and every {@code init} resets the instance, so one per thread and transformation is
+ * enough.
+ */
+public class CipherInstances {
+
+  private static final ThreadLocal<Map<String, Cipher>> INSTANCES =
+      ThreadLocal.withInitial(HashMap::new);
+
+  private CipherInstances() {}
+
+  public static Cipher get(String transformation)
+      throws NoSuchAlgorithmException, NoSuchPaddingException {
+    var instances = INSTANCES.get();
+    var cipher = instances.get(transformation);
+    if (cipher == null) {
+      cipher = Cipher.getInstance(transformation);
+      instances.put(transformation, cipher);
+    }
+    return cipher;
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.security.core;
+
+import java.security.KeyPair;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool of key pairs generated ahead of time on dedicated worker threads. When the pool drops below
+ * the low watermark the workers refill it up to the high watermark, so bursts are served from the
+ * pool and only an exhausted pool makes the caller generate a key pair itself. One refill runs at a
+ * time and spreads the missing key pairs over the workers.
+ */
+public class KeyPairPool implements AutoCloseable {
+
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final int workers;
+  private final Supplier<KeyPair> generator;
+  private final ConcurrentLinkedQueue<KeyPair> keyPairs = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicBoolean refilling = new AtomicBoolean();
+  private final ExecutorService executor;
+
+  public KeyPairPool(int lowWatermark, int highWatermark, int workers) {
+    this(lowWatermark, highWatermark, workers, RSAUtil::generateKeyPair);
+  }
+
+  public KeyPairPool(
+      int lowWatermark, int highWatermark, int workers, Supplier<KeyPair> generator) {
+    if (lowWatermark < 0 || highWatermark <= lowWatermark || workers <= 0) {
+      throw new IllegalArgumentException(
+          "expected 0 <= lowWatermark < highWatermark and at least one worker");
+    }
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.workers = workers;
+    this.generator = generator;
+    this.executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory());
+    refill();
+  }
+
+  /** Takes a pooled key pair, or generates one on the calling thread if the pool is empty. */
+  public KeyPair take() {
+    var keyPair = keyPairs.poll();
+    if (keyPair != null) {
+      size.decrementAndGet();
+    }
+    if (size.get() < lowWatermark) {
+      refill();
+    }
+    return keyPair != null ? keyPair : generator.get();
+  }
+
+  public int size() {
+    return size.get();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /** Starts a refill unless one is running; the running one rechecks the size before it stops. */
+  private void refill() {
+    if (!refilling.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(this::fill);
+    } catch (RejectedExecutionException e) {
+      refilling.set(false);
+    }
+  }
+
+  private void fill() {
+    do {
+      try {
+        fillToHighWatermark();
+      } finally {
+        refilling.set(false);
+      }
+      // a take that dropped below the low watermark while the flag was set did not start a refill
+    } while (!Thread.currentThread().isInterrupted()
+        && size.get() < lowWatermark
+        && refilling.compareAndSet(false, true));
+  }
+
+  /**
+   * Generates the key pairs missing up to the high watermark on this and the other workers. Only
+   * one refill runs at a time and takes only shrink the pool, so it never grows past the mark.
+   */
+  private void fillToHighWatermark() {
+    var missing = new AtomicInteger(highWatermark - size.get());
+    var helpers = new CompletableFuture<?>[workers - 1];
+    for (int i = 0; i < helpers.length; i++) {
+      helpers[i] = CompletableFuture.runAsync(() -> generate(missing), executor);
+    }
+    generate(missing);
+    CompletableFuture.allOf(helpers).join();
+  }
+
+  private void generate(AtomicInteger missing) {
+    while (!Thread.currentThread().isInterrupted() && missing.getAndDecrement() > 0) {
+      keyPairs.offer(generator.get());
+      size.incrementAndGet();
+    }
+  }
+
+  private static class WorkerThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      var thread = new Thread(runnable, "key-pair-pool-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    }
+  }
+}
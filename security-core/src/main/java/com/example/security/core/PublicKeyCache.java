@@ -0,0 +1,49 @@
+package com.example.security.core;
+
+import java.security.PublicKey;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of parsed RSA public keys keyed by the owner of the key (a device id, a key id).
+ * The encoded form is kept next to the parsed key so a rotated key for the same id is never served
+ * stale; it is simply parsed again. When the cache is full an arbitrary entry is dropped, which is
+ * enough to bound memory without paying for LRU bookkeeping on every read.
+ */
+public class PublicKeyCache {
+
+  private final int maximumSize;
+  private final ConcurrentHashMap<String, Entry> keys = new ConcurrentHashMap<>();
+
+  public PublicKeyCache(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  public PublicKey get(String id, String base64PublicKey) {
+    var entry = keys.get(id);
+    if (entry != null && entry.encoded.equals(base64PublicKey)) {
+      return entry.publicKey;
+    }
+    var publicKey = RSAUtil.getPublicKey(base64PublicKey);
+    if (entry == null && keys.size() >= maximumSize) {
+      var iterator = keys.keySet().iterator();
+      if (iterator.hasNext()) {
+        keys.remove(iterator.next());
+      }
+    }
+    keys.put(id, new Entry(base64PublicKey, publicKey));
+    return publicKey;
+  }
+
+  public void invalidate(String id) {
+    keys.remove(id);
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  private record Entry(String encoded, PublicKey publicKey) {}
+}
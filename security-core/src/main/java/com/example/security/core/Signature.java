@@ -3,16 +3,19 @@ package com.example.security.core;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
 
 public interface Signature {
 
+  String ALGORITHM = "SHA256withRSA";
+
   default String sign(String privateKey)
       throws NoSuchAlgorithmException, InvalidKeyException, SignatureException,
           InvalidKeySpecException {
-    var privateSignature = java.security.Signature.getInstance("SHA256withRSA");
+    var privateSignature = SignatureInstances.get(ALGORITHM);
     privateSignature.initSign(RSAUtil.getPrivateKey(privateKey));
     privateSignature.update(this.create().getBytes(StandardCharsets.UTF_8));
     var signature = privateSignature.sign();
@@ -22,8 +25,17 @@ public interface Signature {
   default boolean verify(String signature, String publicKey)
       throws NoSuchAlgorithmException, InvalidKeyException, SignatureException,
           InvalidKeySpecException {
-    var publicSignature = java.security.Signature.getInstance("SHA256withRSA");
-    publicSignature.initVerify(RSAUtil.getPublicKey(publicKey));
+    return verify(signature, RSAUtil.getPublicKey(publicKey));
+  }
+
+  /**
+   * Verifies against an already parsed key. Callers on the request path should keep parsed keys in a
+   * {@link PublicKeyCache} rather than decoding the base64 form on every call.
+   */
+  default boolean verify(String signature, PublicKey publicKey)
+      throws InvalidKeyException, SignatureException {
+    var publicSignature = SignatureInstances.get(ALGORITHM);
+    publicSignature.initVerify(publicKey);
     publicSignature.update(this.create().getBytes(StandardCharsets.UTF_8));
     var signatureBytes = Base64.getDecoder().decode(signature);
     return publicSignature.verify(signatureBytes);
@@ -0,0 +1,37 @@
+package com.example.security.core;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread pool of {@link java.security.Signature} engines. Looking up a provider for every
+ * request is comparatively expensive, and an engine is reset by every {@code initSign} / {@code
+ * initVerify}, so one instance per thread and algorithm can be reused safely.
+ */
+public class SignatureInstances {
+
+  private static final ThreadLocal<Map<String, java.security.Signature>> INSTANCES =
+      ThreadLocal.withInitial(HashMap::new);
+
+  private SignatureInstances() {}
+
+  /**
+   * The engine for {@code algorithm} on this thread. Only standard algorithms such as {@link
+   * Signature#ALGORITHM}, which every JRE provides, are asked for, so a missing one is a
+   * configuration error rather than something callers handle.
+   */
+  public static java.security.Signature get(String algorithm) {
+    var instances = INSTANCES.get();
+    var signature = instances.get(algorithm);
+    if (signature == null) {
+      try {
+        signature = java.security.Signature.getInstance(algorithm);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("signature algorithm not available: " + algorithm, e);
+      }
+      instances.put(algorithm, signature);
+    }
+    return signature;
+  }
+}
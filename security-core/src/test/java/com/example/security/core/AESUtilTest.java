@@ -4,6 +4,8 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import javax.crypto.AEADBadTagException;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
@@ -44,4 +46,40 @@ class AESUtilTest {
     String plainText = AESUtil.decrypt(cipherText, password, salt, iv);
     Assertions.assertEquals(input, plainText);
   }
+
+  @Test
+  @DisplayName("given string, password and salt when encrypt with gcm then success")
+  void givenStringPasswordAndSaltWhenEncryptWithGcmThenSuccess() {
+    var input = "some-text";
+    var password = "my_super_secret_key";
+    var salt = "ssshhhhhhhhhhh!!!!";
+    var cipherText = AESUtil.encryptGcm(input, password, salt);
+    Assertions.assertTrue(cipherText.startsWith(AESUtil.GCM_PREFIX));
+    Assertions.assertNotEquals(cipherText, AESUtil.encryptGcm(input, password, salt));
+    Assertions.assertEquals(input, AESUtil.decrypt(cipherText, password, salt, null));
+  }
+
+  @Test
+  @DisplayName("given gcm cipher text when tampered then decrypt fails")
+  void givenGcmCipherTextWhenTamperedThenDecryptFails() {
+    var password = "my_super_secret_key";
+    var salt = "ssshhhhhhhhhhh!!!!";
+    var cipherText = AESUtil.encryptGcm("some-text", password, salt);
+    var bytes = Base64.getDecoder().decode(cipherText.substring(AESUtil.GCM_PREFIX.length()));
+    bytes[bytes.length - 1] ^= 1;
+    var tampered = AESUtil.GCM_PREFIX + Base64.getEncoder().encodeToString(bytes);
+    Assertions.assertThrows(
+        AEADBadTagException.class, () -> AESUtil.decrypt(tampered, password, salt, null));
+  }
+
+  @Test
+  @DisplayName("given same password and salt when derive cached key then same key")
+  void givenSamePasswordAndSaltWhenDeriveCachedKeyThenSameKey() throws Exception {
+    var first = AESUtil.getCachedKeyFromPassword("my_super_secret_key", "salt");
+    var second = AESUtil.getCachedKeyFromPassword("my_super_secret_key", "salt");
+    Assertions.assertSame(first, second);
+    Assertions.assertArrayEquals(
+        AESUtil.getKeyFromPassword("my_super_secret_key", "salt").getEncoded(),
+        first.getEncoded());
+  }
 }
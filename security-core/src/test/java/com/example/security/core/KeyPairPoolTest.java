@@ -0,0 +1,86 @@
+package com.example.security.core;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyPairPoolTest {
+
+  @Test
+  @DisplayName("given new pool when started then fill up to high watermark")
+  void givenNewPoolWhenStartedThenFillUpToHighWatermark() throws InterruptedException {
+    try (var pool = new KeyPairPool(2, 5, 1, () -> new KeyPair(null, null))) {
+      awaitSize(pool, 5);
+      Assertions.assertEquals(5, pool.size());
+    }
+  }
+
+  @Test
+  @DisplayName("given pool below low watermark when take then refill")
+  void givenPoolBelowLowWatermarkWhenTakeThenRefill() throws InterruptedException {
+    var generated = new AtomicInteger();
+    try (var pool =
+        new KeyPairPool(
+            2,
+            4,
+            2,
+            () -> {
+              generated.incrementAndGet();
+              return new KeyPair(null, null);
+            })) {
+      awaitSize(pool, 4);
+      for (int i = 0; i < 3; i++) {
+        Assertions.assertNotNull(pool.take());
+      }
+      awaitSize(pool, 4);
+      Assertions.assertTrue(generated.get() >= 7);
+    }
+  }
+
+  @Test
+  @DisplayName("given concurrent takes when refilling then stay within high watermark")
+  void givenConcurrentTakesWhenRefillingThenStayWithinHighWatermark() throws Exception {
+    var maxSize = new AtomicInteger();
+    try (var pool = new KeyPairPool(4, 8, 4, () -> new KeyPair(null, null))) {
+      var takers = Executors.newFixedThreadPool(4);
+      try {
+        var takes = new ArrayList<Future<?>>();
+        for (int i = 0; i < 4; i++) {
+          takes.add(
+              takers.submit(
+                  () -> {
+                    for (int j = 0; j < 500; j++) {
+                      pool.take();
+                      maxSize.accumulateAndGet(pool.size(), Math::max);
+                    }
+                  }));
+        }
+        for (var take : takes) {
+          take.get();
+        }
+      } finally {
+        takers.shutdownNow();
+      }
+      awaitSize(pool, 4);
+      Assertions.assertTrue(pool.size() >= 4);
+      Assertions.assertTrue(maxSize.get() <= 8, "pool grew to " + maxSize.get());
+    }
+  }
+
+  @Test
+  @DisplayName("given invalid watermarks when create then throw")
+  void givenInvalidWatermarksWhenCreateThenThrow() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new KeyPairPool(5, 5, 1));
+  }
+
+  private static void awaitSize(KeyPairPool pool, int expected) throws InterruptedException {
+    for (int i = 0; i < 100 && pool.size() < expected; i++) {
+      Thread.sleep(20);
+    }
+  }
+}
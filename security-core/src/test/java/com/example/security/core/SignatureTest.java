@@ -0,0 +1,60 @@
+package com.example.security.core;
+
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SignatureException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SignatureTest {
+
+  private static final Signature SIGNATURE = () -> "some-text";
+  private static final Signature OTHER_SIGNATURE = () -> "other-text";
+
+  @Test
+  @DisplayName("given signed text when verify with parsed key then success")
+  void givenSignedTextWhenVerifyWithParsedKeyThenSuccess()
+      throws NoSuchAlgorithmException, InvalidKeyException, SignatureException,
+          InvalidKeySpecException {
+    var keyPair = RSAUtil.generateKeyPair();
+    var privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+    var publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+    var cache = new PublicKeyCache(10);
+
+    var signature = SIGNATURE.sign(privateKey);
+    Assertions.assertTrue(SIGNATURE.verify(signature, publicKey));
+    Assertions.assertTrue(SIGNATURE.verify(signature, cache.get("device", publicKey)));
+    Assertions.assertFalse(OTHER_SIGNATURE.verify(signature, cache.get("device", publicKey)));
+  }
+
+  @Test
+  @DisplayName("given rotated key when get from cache then parse again")
+  void givenRotatedKeyWhenGetFromCacheThenParseAgain() {
+    var cache = new PublicKeyCache(10);
+    var first = RSAUtil.generateKeyPair().getPublic();
+    var second = RSAUtil.generateKeyPair().getPublic();
+    var firstEncoded = Base64.getEncoder().encodeToString(first.getEncoded());
+    var secondEncoded = Base64.getEncoder().encodeToString(second.getEncoded());
+
+    var parsed = cache.get("device", firstEncoded);
+    Assertions.assertSame(parsed, cache.get("device", firstEncoded));
+    Assertions.assertEquals(second, cache.get("device", secondEncoded));
+    Assertions.assertEquals(1, cache.size());
+  }
+
+  @Test
+  @DisplayName("given full cache when get new id then size stays bounded")
+  void givenFullCacheWhenGetNewIdThenSizeStaysBounded() {
+    var cache = new PublicKeyCache(2);
+    var encoded =
+        Base64.getEncoder().encodeToString(RSAUtil.generateKeyPair().getPublic().getEncoded());
+
+    cache.get("a", encoded);
+    cache.get("b", encoded);
+    cache.get("c", encoded);
+    Assertions.assertEquals(2, cache.size());
+  }
+}
@@ -8,6 +8,7 @@ include("otp")
 
 // shared libraries
 include("security-core")
+include("rate-limiter")
 include("spring-core")
 include("spring-metrics")
 include("spring-web")
@@ -39,6 +39,8 @@ dependencies {
     implementation("org.axonframework:axon-spring-boot-starter:4.6.1")
     implementation("org.axonframework.extensions.reactor:axon-reactor-spring-boot-starter:4.6.0")
     implementation(project(":spring-core"))
+    compileOnly("jakarta.persistence:jakarta.persistence-api")
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
 }
 
 tasks.withType<Test> {
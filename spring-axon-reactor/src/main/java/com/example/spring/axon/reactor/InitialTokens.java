@@ -0,0 +1,58 @@
+package com.example.spring.axon.reactor;
+
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.config.Configuration;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.tokenstore.jpa.TokenEntry;
+import org.axonframework.messaging.StreamableMessageSource;
+
+/**
+ * Initial tokens for processors that take over events from a processor that is already running.
+ * A new processor started at the tail would redo everything the old one already handled, and one
+ * started at the head would skip what the old one had not reached yet.
+ */
+@Slf4j
+public final class InitialTokens {
+
+  private InitialTokens() {}
+
+  /**
+   * Starts at the position of the slowest segment of {@code processorName}, or at the head of the
+   * stream when that processor has no tokens yet.
+   *
+   * <p>The tokens are read straight from the JPA token entries, without claiming their segments,
+   * so the processor keeps running wherever it owns them. The function is called by the new
+   * processor while it initializes its own tokens, inside that transaction.
+   */
+  public static Function<StreamableMessageSource<TrackedEventMessage<?>>, TrackingToken> copyOf(
+      Configuration config, String processorName) {
+    return messageSource -> {
+      var entries =
+          config
+              .getComponent(EntityManagerProvider.class)
+              .getEntityManager()
+              .createQuery(
+                  "SELECT t FROM TokenEntry t WHERE t.processorName = :processorName",
+                  TokenEntry.class)
+              .setParameter("processorName", processorName)
+              .getResultList();
+      if (entries.isEmpty()) {
+        log.info("no tokens for {}, starting from the head", processorName);
+        return messageSource.createHeadToken();
+      }
+      TrackingToken lowest = null;
+      for (var entry : entries) {
+        var token = entry.getToken(config.serializer());
+        if (token == null) {
+          // a segment that has not handled anything yet, everything after the tail is pending
+          return null;
+        }
+        lowest = lowest == null ? token : lowest.lowerBound(token);
+      }
+      return lowest;
+    };
+  }
+}
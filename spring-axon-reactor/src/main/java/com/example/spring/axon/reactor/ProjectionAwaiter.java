@@ -0,0 +1,63 @@
+package com.example.spring.axon.reactor;
+
+import com.example.spring.core.exceptions.CoreExceptions;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.extensions.reactor.queryhandling.gateway.ReactorQueryGateway;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-your-writes for command-then-read flows without parking a thread. The subscription query is
+ * registered before the command is sent, so an update emitted by the projector through the {@code
+ * QueryUpdateEmitter} cannot be missed; the initial result is only read once the command has
+ * completed and covers projections that were already up to date. The subscription is cancelled as
+ * soon as a result arrives, the command fails or the timeout elapses.
+ */
+@Slf4j
+public class ProjectionAwaiter {
+
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+  private final ReactorQueryGateway reactorQueryGateway;
+  private Duration defaultTimeout = DEFAULT_TIMEOUT;
+
+  public ProjectionAwaiter(ReactorQueryGateway reactorQueryGateway) {
+    this.reactorQueryGateway = reactorQueryGateway;
+  }
+
+  public void setDefaultTimeout(Duration defaultTimeout) {
+    this.defaultTimeout = defaultTimeout;
+  }
+
+  public <Q, R> Mono<R> awaitAfter(Mono<?> command, Q query, Class<R> resultType) {
+    return awaitAfter(command, query, resultType, defaultTimeout);
+  }
+
+  public <Q, R> Mono<R> awaitAfter(
+      Mono<?> command, Q query, Class<R> resultType, Duration timeout) {
+    return reactorQueryGateway
+        .subscriptionQuery(
+            query, ResponseTypes.instanceOf(resultType), ResponseTypes.instanceOf(resultType))
+        .flatMap(
+            result ->
+                command
+                    .then(
+                        result
+                            .initialResult()
+                            .onErrorResume(throwable -> Mono.empty())
+                            .concatWith(result.updates())
+                            .next())
+                    .timeout(
+                        timeout,
+                        Mono.defer(
+                            () -> {
+                              log.warn(
+                                  "projection for {} not updated within {}",
+                                  query.getClass().getSimpleName(),
+                                  timeout);
+                              return Mono.error(CoreExceptions.SERVICE_UNAVAILABLE.getEx());
+                            }))
+                    .doFinally(signalType -> result.cancel()));
+  }
+}
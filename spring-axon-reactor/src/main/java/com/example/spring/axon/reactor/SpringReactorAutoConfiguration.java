@@ -2,6 +2,7 @@ package com.example.spring.axon.reactor;
 
 import com.example.spring.core.exceptions.CoreExceptions;
 import com.example.spring.core.exceptions.IException;
+import java.time.Duration;
 import org.axonframework.commandhandling.CommandExecutionException;
 import org.axonframework.commandhandling.NoHandlerForCommandException;
 import org.axonframework.config.EventProcessingConfigurer;
@@ -10,7 +11,10 @@ import org.axonframework.extensions.reactor.commandhandling.gateway.ReactorComma
 import org.axonframework.extensions.reactor.queryhandling.gateway.ReactorQueryGateway;
 import org.axonframework.queryhandling.QueryExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
@@ -54,6 +58,16 @@ public class SpringReactorAutoConfiguration {
                 }));
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  public ProjectionAwaiter projectionAwaiter(
+      ReactorQueryGateway reactorQueryGateway,
+      @Value("${app.projection.timeout:PT10S}") Duration timeout) {
+    var projectionAwaiter = new ProjectionAwaiter(reactorQueryGateway);
+    projectionAwaiter.setDefaultTimeout(timeout);
+    return projectionAwaiter;
+  }
+
   @Autowired
   public void configureProcessingGroupErrorHandling(
       EventProcessingConfigurer processingConfigurer) {
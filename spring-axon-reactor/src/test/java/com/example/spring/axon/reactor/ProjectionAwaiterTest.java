@@ -0,0 +1,145 @@
+package com.example.spring.axon.reactor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.spring.core.exceptions.ApplicationException;
+import com.example.spring.core.exceptions.CoreExceptions;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.axonframework.extensions.reactor.queryhandling.gateway.ReactorQueryGateway;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ProjectionAwaiterTest {
+
+  private static final Duration TIMEOUT = Duration.ofMillis(200);
+  private static final String QUERY = "query";
+
+  private final ReactorQueryGateway reactorQueryGateway = mock(ReactorQueryGateway.class);
+  private final ProjectionAwaiter projectionAwaiter = new ProjectionAwaiter(reactorQueryGateway);
+  private final Sinks.Many<String> updates = Sinks.many().multicast().onBackpressureBuffer();
+
+  @SuppressWarnings("unchecked")
+  private final SubscriptionQueryResult<String, String> result =
+      mock(SubscriptionQueryResult.class);
+
+  @BeforeEach
+  public void beforeEach() {
+    when(result.updates()).thenReturn(updates.asFlux());
+    doReturn(Mono.just(result))
+        .when(reactorQueryGateway)
+        .subscriptionQuery(eq(QUERY), any(ResponseType.class), any(ResponseType.class));
+  }
+
+  @Test
+  @DisplayName("test await after given projection already up to date should return initial result")
+  public void testAwaitAfterGivenProjectionAlreadyUpToDateShouldReturnInitialResult() {
+    when(result.initialResult()).thenReturn(Mono.just("initial"));
+
+    var value = projectionAwaiter.awaitAfter(Mono.empty(), QUERY, String.class, TIMEOUT).block();
+
+    assertEquals("initial", value);
+    verify(result).cancel();
+  }
+
+  @Test
+  @DisplayName("test await after given update after the command should return the update")
+  public void testAwaitAfterGivenUpdateAfterTheCommandShouldReturnTheUpdate() {
+    when(result.initialResult()).thenReturn(Mono.empty());
+    var command = Mono.fromRunnable(() -> updates.tryEmitNext("updated"));
+
+    var value = projectionAwaiter.awaitAfter(command, QUERY, String.class, TIMEOUT).block();
+
+    assertEquals("updated", value);
+    verify(result).cancel();
+  }
+
+  @Test
+  @DisplayName("test await after given no update within timeout should return service unavailable")
+  public void testAwaitAfterGivenNoUpdateWithinTimeoutShouldReturnServiceUnavailable() {
+    when(result.initialResult()).thenReturn(Mono.empty());
+
+    var exception =
+        assertThrows(
+            ApplicationException.class,
+            () -> projectionAwaiter.awaitAfter(Mono.empty(), QUERY, String.class, TIMEOUT).block());
+
+    assertEquals(CoreExceptions.SERVICE_UNAVAILABLE.getEx().getCode(), exception.getCode());
+    verify(result).cancel();
+  }
+
+  @Test
+  @DisplayName("test await after given failed command should return its error and not query")
+  public void testAwaitAfterGivenFailedCommandShouldReturnItsErrorAndNotQuery() {
+    var initialRead = new AtomicBoolean();
+    when(result.initialResult())
+        .thenReturn(Mono.fromSupplier(() -> "initial").doOnSubscribe(s -> initialRead.set(true)));
+
+    var exception =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                projectionAwaiter
+                    .awaitAfter(
+                        Mono.error(new IllegalStateException("rejected")),
+                        QUERY,
+                        String.class,
+                        TIMEOUT)
+                    .block());
+
+    assertEquals("rejected", exception.getMessage());
+    assertFalse(initialRead.get());
+    verify(result).cancel();
+  }
+
+  @Test
+  @DisplayName("test await after given failed initial query should wait for an update")
+  public void testAwaitAfterGivenFailedInitialQueryShouldWaitForAnUpdate() {
+    when(result.initialResult()).thenReturn(Mono.error(new IllegalStateException("not found")));
+    var command = Mono.fromRunnable(() -> updates.tryEmitNext("updated"));
+
+    var value = projectionAwaiter.awaitAfter(command, QUERY, String.class, TIMEOUT).block();
+
+    assertEquals("updated", value);
+  }
+
+  @Test
+  @DisplayName("test await after given failed updates should return their error")
+  public void testAwaitAfterGivenFailedUpdatesShouldReturnTheirError() {
+    when(result.initialResult()).thenReturn(Mono.empty());
+    var command = Mono.fromRunnable(() -> updates.tryEmitError(new IllegalStateException("gone")));
+
+    var exception =
+        assertThrows(
+            IllegalStateException.class,
+            () -> projectionAwaiter.awaitAfter(command, QUERY, String.class, TIMEOUT).block());
+
+    assertEquals("gone", exception.getMessage());
+    verify(result).cancel();
+  }
+
+  @Test
+  @DisplayName("test await after given caller cancels should cancel the subscription query")
+  public void testAwaitAfterGivenCallerCancelsShouldCancelTheSubscriptionQuery() {
+    when(result.initialResult()).thenReturn(Mono.empty());
+
+    var subscription =
+        projectionAwaiter
+            .awaitAfter(Mono.empty(), QUERY, String.class, Duration.ofMinutes(1))
+            .subscribe();
+    subscription.dispose();
+
+    verify(result).cancel();
+  }
+}
@@ -21,6 +21,11 @@ public enum CoreExceptions implements IException {
   NOT_FOUND(
       new ApplicationException(
           "not-found", HttpStatus.NOT_FOUND.getReasonPhrase(), HttpStatus.NOT_FOUND)),
+  TOO_MANY_REQUESTS(
+      new ApplicationException(
+          "too-many-requests",
+          HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+          HttpStatus.TOO_MANY_REQUESTS)),
 
   // HTTP 5xx
   INTERNAL_SERVER_ERROR(
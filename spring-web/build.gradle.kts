@@ -42,6 +42,7 @@ dependencies {
     implementation("com.j256.cloudwatchlogbackappender:cloudwatchlogbackappender:2.1")
     implementation("org.codehaus.janino:janino:3.1.7")
     implementation(project(":spring-core"))
+    implementation(project(":rate-limiter"))
     testImplementation("org.springframework.boot:spring-boot-starter-test") {
         exclude(group = "org.junit.vintage", module = "junit-vintage-engine")
     }
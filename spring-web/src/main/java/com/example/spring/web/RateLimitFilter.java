@@ -0,0 +1,67 @@
+package com.example.spring.web;
+
+import com.example.ratelimit.LocalRateLimiter;
+import com.example.ratelimit.RateLimiter;
+import com.example.spring.core.exceptions.CoreExceptions;
+import java.time.Clock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the {@code app.rate-limit.rules} to incoming requests before they reach a handler. A
+ * rejected request gets a {@code 429} with {@code Retry-After} through {@link GlobalErrorHandler}.
+ * Uses the application's {@link RateLimiter} bean when there is one, so replicas share a Redis
+ * backed limit, and an in-process {@link LocalRateLimiter} otherwise.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitSettings.class)
+public class RateLimitFilter implements WebFilter, Ordered {
+
+  public static final String X_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+  private static final String KEY_PREFIX = "rate-limit-";
+
+  private final RateLimitSettings settings;
+  private final RateLimiter rateLimiter;
+
+  public RateLimitFilter(RateLimitSettings settings, ObjectProvider<RateLimiter> rateLimiter) {
+    this.settings = settings;
+    this.rateLimiter = rateLimiter.getIfAvailable(() -> new LocalRateLimiter(Clock.systemUTC()));
+  }
+
+  @Override
+  @NonNull
+  public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+    var request = exchange.getRequest();
+    var rule = settings.match(request).orElse(null);
+    if (rule == null) {
+      return chain.filter(exchange);
+    }
+    var key = KEY_PREFIX + rule.getName() + "-" + rule.key(request);
+    return Mono.fromCompletionStage(() -> rateLimiter.tryAcquireAsync(key, rule.limit(), 1))
+        .flatMap(
+            acquisition -> {
+              var headers = exchange.getResponse().getHeaders();
+              headers.set(X_RATE_LIMIT_REMAINING, String.valueOf(acquisition.remaining()));
+              if (acquisition.acquired()) {
+                return chain.filter(exchange);
+              }
+              headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(acquisition.retryAfterSeconds()));
+              return Mono.error(CoreExceptions.TOO_MANY_REQUESTS.getEx());
+            });
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE + 10;
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.spring.web;
+
+import com.example.ratelimit.Limit;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitSettings {
+
+  private Boolean enabled = false;
+  private List<Rule> rules = new ArrayList<>();
+
+  /** The first rule whose path and method match the request, if any. */
+  public Optional<Rule> match(ServerHttpRequest request) {
+    for (var rule : rules) {
+      if (rule.matches(request)) {
+        return Optional.of(rule);
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Getter
+  @Setter
+  public static class Rule {
+
+    private String name;
+    private String path;
+    private Set<HttpMethod> methods = Set.of();
+    private Integer permits;
+    private Duration period;
+
+    /**
+     * Header that identifies the caller; the remote address when absent. Only name a header that a
+     * trusted proxy sets, such as {@code X-Forwarded-For} behind the gateway: a value the client
+     * picks, like a device id, can be changed on every request. For a list the last entry counts,
+     * the one added by the nearest proxy, as the entries before it come from the client.
+     */
+    private String header;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private PathPattern pathPattern;
+
+    public void setPath(String path) {
+      this.path = path;
+      this.pathPattern = PathPatternParser.defaultInstance.parse(path);
+    }
+
+    public Limit limit() {
+      return Limit.of(permits, period);
+    }
+
+    public String key(ServerHttpRequest request) {
+      if (header != null) {
+        var value = request.getHeaders().getFirst(header);
+        if (value != null && !value.isBlank()) {
+          return value.substring(value.lastIndexOf(',') + 1).trim();
+        }
+      }
+      return Optional.ofNullable(request.getRemoteAddress())
+          .map(InetSocketAddress::getHostString)
+          .orElse("unknown");
+    }
+
+    boolean matches(ServerHttpRequest request) {
+      return (methods.isEmpty() || methods.contains(request.getMethod()))
+          && pathPattern.matches(request.getPath().pathWithinApplication());
+    }
+  }
+}
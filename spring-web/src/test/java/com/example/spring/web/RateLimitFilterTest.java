@@ -0,0 +1,128 @@
+package com.example.spring.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ratelimit.LocalRateLimiter;
+import com.example.ratelimit.RateLimiter;
+import com.example.spring.core.exceptions.ApplicationException;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+class RateLimitFilterTest {
+
+  private final AtomicInteger forwarded = new AtomicInteger();
+  private final WebFilterChain chain =
+      exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+      };
+  private final RateLimitFilter filter = new RateLimitFilter(settings(), rateLimiter());
+
+  @Test
+  @DisplayName("test filter given more requests than the rule allows should reject with 429")
+  void testFilterGivenMoreRequestsThanTheRuleAllowsShouldRejectWith429() {
+    var allowed = exchange(MockServerHttpRequest.post("/api/v1/token").remoteAddress(client()));
+    filter.filter(allowed, chain).block();
+    assertEquals("0", allowed.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+
+    var rejected = exchange(MockServerHttpRequest.post("/api/v1/token").remoteAddress(client()));
+    var error =
+        assertThrows(ApplicationException.class, () -> filter.filter(rejected, chain).block());
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, error.getStatus());
+    assertEquals("60", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertEquals("0", rejected.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+    assertEquals(1, forwarded.get());
+  }
+
+  @Test
+  @DisplayName("test filter given request no rule matches should not limit it")
+  void testFilterGivenRequestNoRuleMatchesShouldNotLimitIt() {
+    for (int i = 0; i < 3; i++) {
+      filter.filter(exchange(MockServerHttpRequest.get("/api/v1/token")), chain).block();
+      filter.filter(exchange(MockServerHttpRequest.post("/api/v1/account")), chain).block();
+    }
+
+    assertEquals(6, forwarded.get());
+  }
+
+  @Test
+  @DisplayName("test filter given forwarded for header should key on its last entry")
+  void testFilterGivenForwardedForHeaderShouldKeyOnItsLastEntry() {
+    filter
+        .filter(
+            exchange(
+                MockServerHttpRequest.post("/api/v1/devices")
+                    .header("X-Forwarded-For", "198.51.100.1, 203.0.113.7")),
+            chain)
+        .block();
+
+    // the client picks every entry but the last, so changing them does not get a new limit
+    var spoofed =
+        exchange(
+            MockServerHttpRequest.post("/api/v1/devices")
+                .header("X-Forwarded-For", "198.51.100.2, 203.0.113.7"));
+    assertThrows(ApplicationException.class, () -> filter.filter(spoofed, chain).block());
+
+    filter
+        .filter(
+            exchange(
+                MockServerHttpRequest.post("/api/v1/devices")
+                    .header("X-Forwarded-For", "198.51.100.1, 203.0.113.8")),
+            chain)
+        .block();
+    assertEquals(2, forwarded.get());
+  }
+
+  private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+    return MockServerWebExchange.from(request);
+  }
+
+  private static InetSocketAddress client() {
+    return new InetSocketAddress("192.0.2.10", 40000);
+  }
+
+  private static RateLimitSettings settings() {
+    var token = rule("token", "/api/v1/token", null);
+    token.setMethods(Set.of(HttpMethod.POST));
+    var devices = rule("devices", "/api/v1/devices", "X-Forwarded-For");
+    var settings = new RateLimitSettings();
+    settings.setEnabled(true);
+    settings.setRules(List.of(token, devices));
+    return settings;
+  }
+
+  private static RateLimitSettings.Rule rule(String name, String path, String header) {
+    var rule = new RateLimitSettings.Rule();
+    rule.setName(name);
+    rule.setPath(path);
+    rule.setHeader(header);
+    rule.setPermits(1);
+    rule.setPeriod(Duration.ofMinutes(1));
+    return rule;
+  }
+
+  private static ObjectProvider<RateLimiter> rateLimiter() {
+    var clock = Clock.fixed(Instant.parse("2022-10-01T00:00:00Z"), ZoneOffset.UTC);
+    return new StaticListableBeanFactory(Map.of("rateLimiter", new LocalRateLimiter(clock)))
+        .getBeanProvider(RateLimiter.class);
+  }
+}